@@ -0,0 +1,102 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.metrics.ApiMetricsRecorder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures per-request metrics recording under contention.
+ *
+ * <p>{@link ApiMetricsRecorder} is compared with a {@link ConcurrentHashMap} of
+ * {@link AtomicLong} counters keyed by the raw request path, which is how the
+ * metrics were recorded before route templates were introduced. Run
+ * {@link #main(String[])} to sweep the thread counts.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiMetricsContentionBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    private static final String[] PATHS = {
+        "/api/plugins",
+        "/api/plugins/plugin-1",
+        "/api/plugins/plugin-2/config",
+        "/api/plugins/plugin-3/start",
+        "/api/plugins/plugin-4/stop",
+        "/api/metrics"
+    };
+
+    private static final String[] METHODS = {"GET", "GET", "GET", "POST", "POST", "GET"};
+
+    private ApiMetricsRecorder recorder;
+    private Map<String, AtomicLong> rawPathCounters;
+
+    @Setup
+    public void setUp() {
+        recorder = new ApiMetricsRecorder();
+        recorder.registerRoute("GET", "/api/plugins");
+        recorder.registerRoute("GET", "/api/plugins/:name");
+        recorder.registerRoute("GET", "/api/plugins/:name/config");
+        recorder.registerRoute("POST", "/api/plugins/:name/start");
+        recorder.registerRoute("POST", "/api/plugins/:name/stop");
+        recorder.registerRoute("GET", "/api/metrics");
+        rawPathCounters = new ConcurrentHashMap<>();
+    }
+
+    @Benchmark
+    public Object recorderRequest() {
+        int i = ThreadLocalRandom.current().nextInt(PATHS.length);
+        return recorder.recordRequest(METHODS[i], PATHS[i]);
+    }
+
+    @Benchmark
+    public Object recorderTimedRequest() {
+        int i = ThreadLocalRandom.current().nextInt(PATHS.length);
+        Object route = recorder.beginRequest(METHODS[i], PATHS[i]);
+        recorder.endRequest();
+        return route;
+    }
+
+    @Benchmark
+    public long rawPathMap() {
+        int i = ThreadLocalRandom.current().nextInt(PATHS.length);
+        return rawPathCounters.computeIfAbsent(METHODS[i] + " " + PATHS[i], key -> new AtomicLong())
+                .incrementAndGet();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(ApiMetricsContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginService.ConfigDelta;
+import com.pdbp.controller.PluginService.ConfigSnapshot;
+import com.pdbp.controller.PluginService.PluginServiceException;
+import com.pdbp.controller.config.ConfigJournal;
+import com.pdbp.controller.config.VersionedConfigStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the persistent config journal: restoring a store on startup, and journaled one-key updates.
+ *
+ * <p>The journal to restore holds one snapshot per plugin followed by ten
+ * one-key deltas per plugin, as it would between compactions.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigJournalBenchmark {
+
+    @Param({"10000"})
+    public int pluginCount;
+
+    @Param({"20"})
+    public int configKeys;
+
+    private Path directory;
+    private Path restoreFile;
+    private ConfigJournal journal;
+    private VersionedConfigStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, PluginServiceException {
+        directory = Files.createTempDirectory("pdbp-journal-bench");
+        restoreFile = directory.resolve("restore.journal");
+        try (ConfigJournal restore = ConfigJournal.open(restoreFile, Long.MAX_VALUE)) {
+            VersionedConfigStore filled = new VersionedConfigStore(restore);
+            fill(filled);
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < pluginCount; i++) {
+                    filled.update(InMemoryPluginService.pluginName(i), oneKeyChange(round), ConfigSnapshot.ANY_VERSION);
+                }
+            }
+        }
+        journal = ConfigJournal.open(directory.resolve("append.journal"));
+        store = new VersionedConfigStore(journal);
+        fill(store);
+    }
+
+    private void fill(VersionedConfigStore target) {
+        for (int i = 0; i < pluginCount; i++) {
+            String name = InMemoryPluginService.pluginName(i);
+            Map<String, String> config = new HashMap<>();
+            for (int k = 0; k < configKeys; k++) {
+                config.put("key" + k, "value-" + k + "-" + name);
+            }
+            target.put(name, config);
+        }
+    }
+
+    private static ConfigDelta oneKeyChange(int value) {
+        return new ConfigDelta(Collections.singletonMap("key1", Integer.toString(value)), Collections.emptySet());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int restore() throws IOException {
+        try (ConfigJournal restore = ConfigJournal.open(restoreFile, Long.MAX_VALUE)) {
+            return new VersionedConfigStore(restore).size();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ConfigSnapshot journaledUpdate() throws PluginServiceException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return store.update(InMemoryPluginService.pluginName(random.nextInt(pluginCount)),
+                oneKeyChange(random.nextInt()), ConfigSnapshot.ANY_VERSION);
+    }
+}
@@ -0,0 +1,114 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginService.ConfigDelta;
+import com.pdbp.controller.PluginService.ConfigSnapshot;
+import com.pdbp.controller.PluginService.PluginServiceException;
+import com.pdbp.controller.config.VersionedConfigStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-heavy concurrent access to plugin configuration: seven reader threads per writer.
+ *
+ * <p>Compares {@link VersionedConfigStore} against the approach it replaces in
+ * {@link InMemoryPluginService}: one mutable map per plugin, copied under its
+ * lock on every read and updated in place under the same lock.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConfigStoreBenchmark {
+
+    private static final int PLUGINS = 16;
+
+    @Param({"50"})
+    public int configKeys;
+
+    private final VersionedConfigStore store = new VersionedConfigStore();
+    private final Map<String, Map<String, String>> lockedConfigs = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < PLUGINS; i++) {
+            String name = InMemoryPluginService.pluginName(i);
+            Map<String, String> config = new HashMap<>();
+            for (int k = 0; k < configKeys; k++) {
+                config.put("key" + k, "value-" + k + "-" + name);
+            }
+            store.put(name, config);
+            lockedConfigs.put(name, new HashMap<>(config));
+        }
+    }
+
+    private static String randomPlugin() {
+        return InMemoryPluginService.pluginName(ThreadLocalRandom.current().nextInt(PLUGINS));
+    }
+
+    private static Map<String, String> randomChange() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Collections.singletonMap("key" + random.nextInt(8), Integer.toString(random.nextInt()));
+    }
+
+    @Benchmark
+    @Group("store")
+    @GroupThreads(7)
+    public String storeRead() {
+        ConfigSnapshot snapshot = store.get(randomPlugin());
+        return snapshot.getConfig().get("key1");
+    }
+
+    @Benchmark
+    @Group("store")
+    @GroupThreads(1)
+    public ConfigSnapshot storeWrite() throws PluginServiceException {
+        return store.update(randomPlugin(), new ConfigDelta(randomChange(), Collections.emptySet()),
+                ConfigSnapshot.ANY_VERSION);
+    }
+
+    @Benchmark
+    @Group("lockedCopy")
+    @GroupThreads(7)
+    public String lockedCopyRead() {
+        Map<String, String> config = lockedConfigs.get(randomPlugin());
+        Map<String, String> copy;
+        synchronized (config) {
+            copy = new HashMap<>(config);
+        }
+        return copy.get("key1");
+    }
+
+    @Benchmark
+    @Group("lockedCopy")
+    @GroupThreads(1)
+    public Map<String, String> lockedCopyWrite() {
+        Map<String, String> config = lockedConfigs.get(randomPlugin());
+        synchronized (config) {
+            config.putAll(randomChange());
+        }
+        return config;
+    }
+}
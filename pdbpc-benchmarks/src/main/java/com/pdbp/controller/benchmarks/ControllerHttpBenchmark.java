@@ -0,0 +1,94 @@
+package com.pdbp.controller.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of the controller routes over HTTP against an embedded Spark server.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ControllerHttpBenchmark -p pluginCount=1000
+ * </pre>
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerHttpBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pluginCount;
+
+    /**
+     * Whether the service publishes change events, which enables the controller's response cache.
+     */
+    @Param({"true", "false"})
+    public boolean changeEvents;
+
+    private EmbeddedController controller;
+    private String pluginPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        controller = EmbeddedController.start(new InMemoryPluginService(pluginCount, 0, true, changeEvents));
+        pluginPath = "/api/plugins/" + InMemoryPluginService.pluginName(pluginCount / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.stop();
+    }
+
+    @Benchmark
+    public byte[] listPlugins() throws IOException {
+        return controller.get("/api/plugins");
+    }
+
+    @Benchmark
+    public byte[] discoverPlugins() throws IOException {
+        return controller.get("/api/plugins/discover");
+    }
+
+    @Benchmark
+    public byte[] getPluginInfo() throws IOException {
+        return controller.get(pluginPath);
+    }
+
+    @Benchmark
+    public byte[] getMetrics() throws IOException {
+        return controller.get("/api/metrics");
+    }
+
+    @Benchmark
+    public byte[] scrapeOpenMetrics() throws IOException {
+        return controller.get("/metrics");
+    }
+
+    @Benchmark
+    public byte[] getPluginConfig() throws IOException {
+        return controller.get(pluginPath + "/config");
+    }
+
+    @Benchmark
+    public byte[] updatePluginConfig() throws IOException {
+        return controller.request("PUT", pluginPath + "/config", "{\"key1\":\"updated\"}");
+    }
+}
@@ -0,0 +1,127 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginService.PluginDescriptor;
+import com.pdbp.controller.discovery.PluginDiscoveryIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * Compares a cold {@link PluginDiscoveryIndex#refresh()}, which inspects every JAR,
+ * with an incremental refresh after a small fraction of the JARs changed.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscoveryIndexBenchmark {
+
+    @Param({"5000"})
+    public int jarCount;
+
+    @Param({"1"})
+    public int changedPercent;
+
+    private Path pluginDirectory;
+    private PluginDiscoveryIndex warmIndex;
+    private long touchCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pluginDirectory = Files.createTempDirectory("pdbp-discovery-bench");
+        for (int i = 0; i < jarCount; i++) {
+            writePluginJar(pluginDirectory.resolve(InMemoryPluginService.pluginName(i) + ".jar"), i);
+        }
+        warmIndex = new PluginDiscoveryIndex(pluginDirectory, DiscoveryIndexBenchmark::inspect);
+        warmIndex.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        warmIndex.close();
+        try (Stream<Path> paths = Files.walk(pluginDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Bumps the modification time of {@code changedPercent} of the JARs before each refresh.
+     */
+    @Setup(Level.Invocation)
+    public void touchJars() throws IOException {
+        int changed = Math.max(1, jarCount * changedPercent / 100);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < changed; i++) {
+            int index = (int) (touchCounter++ % jarCount);
+            Path jar = pluginDirectory.resolve(InMemoryPluginService.pluginName(index) + ".jar");
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(now + touchCounter * 1000));
+        }
+    }
+
+    @Benchmark
+    public List<PluginDescriptor> coldRefresh() throws IOException {
+        try (PluginDiscoveryIndex index = new PluginDiscoveryIndex(pluginDirectory,
+                DiscoveryIndexBenchmark::inspect)) {
+            index.refresh();
+            return index.getDescriptors();
+        }
+    }
+
+    @Benchmark
+    public List<PluginDescriptor> incrementalRefresh() throws IOException {
+        warmIndex.refresh();
+        return warmIndex.getDescriptors();
+    }
+
+    private static PluginDescriptor inspect(Path jarPath) throws IOException {
+        try (JarFile jar = new JarFile(jarPath.toFile())) {
+            Manifest manifest = jar.getManifest();
+            String className = manifest != null ? manifest.getMainAttributes().getValue("Plugin-Class") : null;
+            if (className == null) {
+                return null;
+            }
+            String fileName = jarPath.getFileName().toString();
+            return new PluginDescriptor(fileName.substring(0, fileName.length() - 4), jarPath.toString(),
+                    className, Files.size(jarPath));
+        }
+    }
+
+    private static void writePluginJar(Path jarPath, int index) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Plugin-Class", "com.example.plugins.Plugin" + index);
+        try (OutputStream out = Files.newOutputStream(jarPath);
+             JarOutputStream jar = new JarOutputStream(out, manifest)) {
+            jar.flush();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.pdbp.controller.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.pdbp.controller.dto.PluginInfoDTO;
+import com.pdbp.controller.dto.PluginInstallRequest;
+import com.pdbp.controller.format.DtoSerializerModule;
+import com.pdbp.controller.format.WireFormat;
+import com.pdbp.controller.format.WireFormats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request serialization cost of the controller's DTOs.
+ *
+ * <p>Compares the generic {@code ObjectMapper} calls the controller used to
+ * make, the typed writers and readers it now builds up front, and typed
+ * writers combined with {@link DtoSerializerModule}.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+    private static final TypeFactory TYPES = TypeFactory.defaultInstance();
+    private static final JavaType PLUGIN_INFO = TYPES.constructType(PluginInfoDTO.class);
+    private static final JavaType PLUGIN_INFO_LIST = TYPES.constructCollectionType(List.class, PluginInfoDTO.class);
+    private static final JavaType INSTALL_REQUEST = TYPES.constructType(PluginInstallRequest.class);
+    private static final JavaType CONFIG = TYPES.constructMapType(Map.class, String.class, String.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ObjectWriter infoWriter;
+    private ObjectWriter listWriter;
+    private ObjectWriter handWrittenInfoWriter;
+    private ObjectWriter handWrittenListWriter;
+    private ObjectReader installReader;
+    private ObjectReader configReader;
+
+    private PluginInfoDTO plugin;
+    private List<PluginInfoDTO> plugins;
+    private byte[] installBody;
+    private byte[] configBody;
+
+    @Setup
+    public void setUp() {
+        WireFormats bean = new WireFormats(ObjectMapper::new, PLUGIN_INFO, PLUGIN_INFO_LIST, INSTALL_REQUEST, CONFIG);
+        WireFormats handWritten = new WireFormats(
+                factory -> new ObjectMapper(factory).registerModule(new DtoSerializerModule()),
+                PLUGIN_INFO, PLUGIN_INFO_LIST);
+        infoWriter = bean.writer(WireFormat.JSON, PLUGIN_INFO);
+        listWriter = bean.writer(WireFormat.JSON, PLUGIN_INFO_LIST);
+        handWrittenInfoWriter = handWritten.writer(WireFormat.JSON, PLUGIN_INFO);
+        handWrittenListWriter = handWritten.writer(WireFormat.JSON, PLUGIN_INFO_LIST);
+        installReader = bean.reader(WireFormat.JSON, INSTALL_REQUEST);
+        configReader = bean.reader(WireFormat.JSON, CONFIG);
+
+        plugins = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            String name = InMemoryPluginService.pluginName(i);
+            plugins.add(new PluginInfoDTO(name, "1.0.0", "STARTED", "/opt/pdbp/plugins/" + name + ".jar"));
+        }
+        plugin = plugins.get(0);
+        installBody = ("{\"pluginName\":\"plugin-0\",\"jarPath\":\"/opt/pdbp/plugins/plugin-0.jar\","
+                + "\"className\":\"com.example.plugins.Plugin\"}").getBytes(StandardCharsets.UTF_8);
+        StringBuilder config = new StringBuilder("{");
+        for (int k = 0; k < 10; k++) {
+            config.append(k > 0 ? "," : "").append("\"key").append(k).append("\":\"value-").append(k).append('"');
+        }
+        configBody = config.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String writeInfoGeneric() throws IOException {
+        return objectMapper.writeValueAsString(plugin);
+    }
+
+    @Benchmark
+    public String writeInfoTyped() throws IOException {
+        return infoWriter.writeValueAsString(plugin);
+    }
+
+    @Benchmark
+    public String writeInfoHandWritten() throws IOException {
+        return handWrittenInfoWriter.writeValueAsString(plugin);
+    }
+
+    @Benchmark
+    public byte[] writeListGeneric() throws IOException {
+        return objectMapper.writeValueAsBytes(plugins);
+    }
+
+    @Benchmark
+    public byte[] writeListTyped() throws IOException {
+        return listWriter.writeValueAsBytes(plugins);
+    }
+
+    @Benchmark
+    public byte[] writeListHandWritten() throws IOException {
+        return handWrittenListWriter.writeValueAsBytes(plugins);
+    }
+
+    @Benchmark
+    public PluginInstallRequest readInstallGeneric() throws IOException {
+        return objectMapper.readValue(new String(installBody, StandardCharsets.UTF_8), PluginInstallRequest.class);
+    }
+
+    @Benchmark
+    public PluginInstallRequest readInstallTyped() throws IOException {
+        return installReader.readValue(installBody);
+    }
+
+    @Benchmark
+    public Map<?, ?> readConfigGeneric() throws IOException {
+        return objectMapper.readValue(new String(configBody, StandardCharsets.UTF_8), Map.class);
+    }
+
+    @Benchmark
+    public Map<String, String> readConfigTyped() throws IOException {
+        return configReader.readValue(configBody);
+    }
+}
@@ -0,0 +1,109 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginController;
+import com.pdbp.controller.PluginService;
+import com.pdbp.controller.http.HttpEngine;
+import com.pdbp.controller.http.HttpEngines;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs a {@link PluginController} on an embedded HTTP engine for end-to-end benchmarks.
+ *
+ * @author Saurabh Maurya
+ */
+public final class EmbeddedController {
+
+    private final HttpEngine engine;
+    private final String baseUrl;
+
+    private EmbeddedController(HttpEngine engine, String baseUrl) {
+        this.engine = engine;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Starts Spark on a free port and registers the controller routes.
+     *
+     * @param pluginService service backing the controller
+     * @return handle for issuing requests
+     * @throws IOException if no free port can be found
+     */
+    public static EmbeddedController start(PluginService pluginService) throws IOException {
+        return start(pluginService, HttpEngines.SPARK);
+    }
+
+    /**
+     * Starts an HTTP engine on a free port and registers the controller routes.
+     *
+     * @param pluginService service backing the controller
+     * @param engineName    engine name accepted by {@link HttpEngines#create(String, int)}
+     * @return handle for issuing requests
+     * @throws IOException if no free port can be found
+     */
+    public static EmbeddedController start(PluginService pluginService, String engineName) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        HttpEngine engine = HttpEngines.create(engineName, port);
+        new PluginController(pluginService).registerRoutes(engine);
+        engine.start();
+        engine.awaitInitialization();
+        return new EmbeddedController(engine, "http://localhost:" + port);
+    }
+
+    /**
+     * Stops the embedded server.
+     */
+    public void stop() {
+        engine.stop();
+    }
+
+    /**
+     * Issues a GET request and returns the response body.
+     */
+    public byte[] get(String path) throws IOException {
+        return request("GET", path, null);
+    }
+
+    /**
+     * Issues a request with an optional JSON body and returns the response body.
+     *
+     * <p>The body is read fully so the keep-alive connection can be reused.
+     */
+    public byte[] request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        if (status >= 500) {
+            throw new IOException(method + " " + path + " failed with " + status);
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,79 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.http.HttpEngines;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the same controller on each HTTP engine, with sixteen concurrent clients.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar HttpEngineBenchmark -p engine=spark,jdk
+ * </pre>
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class HttpEngineBenchmark {
+
+    @Param({HttpEngines.SPARK, HttpEngines.JDK})
+    public String engine;
+
+    @Param({"100"})
+    public int pluginCount;
+
+    private EmbeddedController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        controller = EmbeddedController.start(new InMemoryPluginService(pluginCount, 0, true, true), engine);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.stop();
+    }
+
+    private String randomPluginPath() {
+        return "/api/plugins/" + InMemoryPluginService.pluginName(ThreadLocalRandom.current().nextInt(pluginCount));
+    }
+
+    @Benchmark
+    public byte[] getPluginInfo() throws IOException {
+        return controller.get(randomPluginPath());
+    }
+
+    @Benchmark
+    public byte[] listPlugins() throws IOException {
+        return controller.get("/api/plugins");
+    }
+
+    @Benchmark
+    public byte[] updatePluginConfig() throws IOException {
+        return controller.request("PUT", randomPluginPath() + "/config",
+                "{\"key1\":\"" + ThreadLocalRandom.current().nextInt() + "\"}");
+    }
+}
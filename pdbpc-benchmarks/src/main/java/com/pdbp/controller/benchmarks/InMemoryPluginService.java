@@ -0,0 +1,245 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginChangeNotifier;
+import com.pdbp.controller.PluginService;
+import com.pdbp.controller.config.VersionedConfigStore;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link PluginService} stub with a configurable number of plugins.
+ *
+ * <p>Every registry lookup burns {@code lookupCostTokens} of CPU through
+ * {@link Blackhole#consumeCPU(long)}, which stands in for the locking and
+ * hashing a real plugin registry does, and is counted in {@link #getLookupCount()}.
+ * Change events are published only if enabled, so benchmarks can compare the
+ * controller with and without its response cache. Configuration lives in a
+ * {@link VersionedConfigStore}.
+ *
+ * @author Saurabh Maurya
+ */
+public class InMemoryPluginService implements PluginService {
+
+    private final Map<String, String> states = new ConcurrentHashMap<>();
+    private final VersionedConfigStore configs = new VersionedConfigStore();
+    private final List<PluginDescriptor> descriptors = new ArrayList<>();
+    private final long lookupCostTokens;
+    private final boolean bulkLookups;
+    private final AtomicLong lookups = new AtomicLong();
+    private final PluginChangeNotifier notifier;
+
+    /**
+     * Creates a stub.
+     *
+     * @param pluginCount      number of installed plugins, and of discoverable JARs
+     * @param lookupCostTokens simulated CPU cost of one registry lookup
+     * @param bulkLookups      whether {@link #getPluginInfos(Collection)} resolves all names in one
+     *                         lookup instead of using the per-name default
+     */
+    public InMemoryPluginService(int pluginCount, long lookupCostTokens, boolean bulkLookups) {
+        this(pluginCount, lookupCostTokens, bulkLookups, false);
+    }
+
+    /**
+     * Creates a stub.
+     *
+     * @param pluginCount      number of installed plugins, and of discoverable JARs
+     * @param lookupCostTokens simulated CPU cost of one registry lookup
+     * @param bulkLookups      whether {@link #getPluginInfos(Collection)} resolves all names in one
+     *                         lookup instead of using the per-name default
+     * @param changeEvents     whether change events are published to listeners
+     */
+    public InMemoryPluginService(int pluginCount, long lookupCostTokens, boolean bulkLookups, boolean changeEvents) {
+        this.notifier = changeEvents ? new PluginChangeNotifier() : null;
+        this.lookupCostTokens = lookupCostTokens;
+        this.bulkLookups = bulkLookups;
+        for (int i = 0; i < pluginCount; i++) {
+            String name = pluginName(i);
+            states.put(name, "STARTED");
+            Map<String, String> config = new HashMap<>();
+            for (int k = 0; k < 10; k++) {
+                config.put("key" + k, "value-" + k + "-" + name);
+            }
+            configs.put(name, config);
+            descriptors.add(new PluginDescriptor(name, "/opt/pdbp/plugins/" + name + ".jar",
+                    "com.example.plugins." + name + ".Plugin", 10_000L + i));
+        }
+    }
+
+    /**
+     * Returns the name of the i-th plugin.
+     */
+    public static String pluginName(int index) {
+        return "plugin-" + index;
+    }
+
+    /**
+     * Returns the number of registry lookups performed so far.
+     */
+    public long getLookupCount() {
+        return lookups.get();
+    }
+
+    private void lookup() {
+        lookups.incrementAndGet();
+        if (lookupCostTokens > 0) {
+            Blackhole.consumeCPU(lookupCostTokens);
+        }
+    }
+
+    private PluginInfo info(String pluginName, String state) {
+        return new PluginInfo(pluginName, "1.0.0", state, "/opt/pdbp/plugins/" + pluginName + ".jar");
+    }
+
+    @Override
+    public boolean addChangeListener(PluginChangeListener listener) {
+        return notifier != null && notifier.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(PluginChangeListener listener) {
+        if (notifier != null) {
+            notifier.removeListener(listener);
+        }
+    }
+
+    private void fire(PluginChangeEvent.Type type, String pluginName) {
+        if (notifier != null) {
+            notifier.fire(type, pluginName);
+        }
+    }
+
+    @Override
+    public Set<String> listPlugins() {
+        lookup();
+        return new TreeSet<>(states.keySet());
+    }
+
+    @Override
+    public PluginInfo getPluginInfo(String pluginName) {
+        lookup();
+        String state = states.get(pluginName);
+        return state != null ? info(pluginName, state) : null;
+    }
+
+    @Override
+    public Map<String, PluginInfo> getPluginInfos(Collection<String> pluginNames) {
+        if (!bulkLookups) {
+            return PluginService.super.getPluginInfos(pluginNames);
+        }
+        lookup();
+        Map<String, PluginInfo> infos = new LinkedHashMap<>();
+        for (String pluginName : pluginNames) {
+            String state = states.get(pluginName);
+            if (state != null) {
+                infos.put(pluginName, info(pluginName, state));
+            }
+        }
+        return infos;
+    }
+
+    @Override
+    public List<PluginDescriptor> discoverPlugins() {
+        return descriptors;
+    }
+
+    @Override
+    public PluginInfo installPlugin(String pluginName, String jarPath, String className) {
+        lookup();
+        states.put(pluginName, "LOADED");
+        configs.put(pluginName, Collections.emptyMap());
+        fire(PluginChangeEvent.Type.INSTALLED, pluginName);
+        return info(pluginName, "LOADED");
+    }
+
+    @Override
+    public PluginInfo startPlugin(String pluginName) throws PluginServiceException {
+        PluginInfo info = transition(pluginName, "STARTED");
+        fire(PluginChangeEvent.Type.STARTED, pluginName);
+        return info;
+    }
+
+    @Override
+    public PluginInfo stopPlugin(String pluginName) throws PluginServiceException {
+        PluginInfo info = transition(pluginName, "STOPPED");
+        fire(PluginChangeEvent.Type.STOPPED, pluginName);
+        return info;
+    }
+
+    private PluginInfo transition(String pluginName, String state) throws PluginServiceException {
+        lookup();
+        if (states.replace(pluginName, state) == null) {
+            throw new PluginNotFoundException(pluginName);
+        }
+        return info(pluginName, state);
+    }
+
+    @Override
+    public void unloadPlugin(String pluginName) throws PluginServiceException {
+        lookup();
+        if (states.remove(pluginName) == null) {
+            throw new PluginNotFoundException(pluginName);
+        }
+        configs.remove(pluginName);
+        fire(PluginChangeEvent.Type.UNLOADED, pluginName);
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pluginsInstalled", states.size());
+        metrics.put("pluginsStarted", Collections.frequency(states.values(), "STARTED"));
+        metrics.put("lookups", lookups.get());
+        return metrics;
+    }
+
+    @Override
+    public void recordApiRequest(String endpoint) {
+        // Counted by the controller's own recorder
+    }
+
+    @Override
+    public void recordApiError(String endpoint) {
+        // Counted by the controller's own recorder
+    }
+
+    @Override
+    public Map<String, String> getPluginConfig(String pluginName) {
+        ConfigSnapshot snapshot = getPluginConfigSnapshot(pluginName);
+        return snapshot != null ? snapshot.getConfig() : null;
+    }
+
+    @Override
+    public void updatePluginConfig(String pluginName, Map<String, String> config) throws PluginServiceException {
+        updatePluginConfig(pluginName, new ConfigDelta(config, Collections.emptySet()), ConfigSnapshot.ANY_VERSION);
+    }
+
+    @Override
+    public ConfigSnapshot getPluginConfigSnapshot(String pluginName) {
+        lookup();
+        return configs.get(pluginName);
+    }
+
+    @Override
+    public ConfigSnapshot updatePluginConfig(String pluginName, ConfigDelta delta, long expectedVersion)
+            throws PluginServiceException {
+        lookup();
+        ConfigSnapshot updated = configs.update(pluginName, delta, expectedVersion);
+        if (!delta.isEmpty()) {
+            fire(PluginChangeEvent.Type.CONFIG_UPDATED, pluginName);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,97 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.util.JsonUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JsonUtils} escaping with the previous implementation, which
+ * chained five {@code String.replace} calls.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation per operation.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonEscapeBenchmark {
+
+    @Param({"clean", "quoted", "stackTrace"})
+    public String message;
+
+    private String input;
+    private final StringBuilder reusedBuilder = new StringBuilder(1024);
+
+    @Setup
+    public void setUp() {
+        switch (message) {
+            case "clean":
+                input = "Plugin plugin-42 started successfully in 120 ms";
+                break;
+            case "quoted":
+                input = "Plugin \"plugin-42\" is not installed";
+                break;
+            default:
+                input = "Failed to start plugin-42: java.lang.IllegalStateException: bad state\n"
+                        + "\tat com.example.plugins.Plugin42.start(Plugin42.java:17)\r\n"
+                        + "\tat C:\\plugins\\plugin-42.jar";
+        }
+    }
+
+    @Benchmark
+    public String legacyEscape() {
+        return legacyEscapeJson(input);
+    }
+
+    @Benchmark
+    public String escape() {
+        return JsonUtils.escapeJson(input);
+    }
+
+    @Benchmark
+    public String legacyErrorResponse() {
+        return "{\"error\":\"" + legacyEscapeJson(input) + "\"}";
+    }
+
+    @Benchmark
+    public String errorResponse() {
+        return JsonUtils.errorResponse(input);
+    }
+
+    @Benchmark
+    public int errorResponseToBuilder() {
+        reusedBuilder.setLength(0);
+        JsonUtils.escapeJson(input, reusedBuilder.append("{\"error\":\"")).append("\"}");
+        return reusedBuilder.length();
+    }
+
+    /**
+     * The escaping previously used by {@link JsonUtils#escapeJson(String)}.
+     */
+    private static String legacyEscapeJson(String str) {
+        if (str == null) {
+            return "";
+        }
+        return str.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t");
+    }
+}
@@ -0,0 +1,57 @@
+package com.pdbp.controller.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdbp.controller.dto.PluginInfoDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of plugin listings as returned by the controller.
+ * Hand-written escaping is covered by {@link JsonEscapeBenchmark}.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100"})
+    public int pluginCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<PluginInfoDTO> plugins;
+
+    @Setup
+    public void setUp() {
+        plugins = new ArrayList<>(pluginCount);
+        for (int i = 0; i < pluginCount; i++) {
+            String name = InMemoryPluginService.pluginName(i);
+            plugins.add(new PluginInfoDTO(name, "1.0.0", "STARTED", "/opt/pdbp/plugins/" + name + ".jar"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePluginList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(plugins);
+    }
+}
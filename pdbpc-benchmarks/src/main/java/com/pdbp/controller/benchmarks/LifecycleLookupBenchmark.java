@@ -0,0 +1,91 @@
+package com.pdbp.controller.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts registry lookups per lifecycle and config request over HTTP.
+ *
+ * <p>The {@code lookups} and {@code requests} counters are totals per iteration;
+ * their ratio is the number of {@code PluginService} lookups each request caused,
+ * which should be one for a plugin that exists.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LifecycleLookupBenchmark {
+
+    private static final String PLUGIN_PATH = "/api/plugins/" + InMemoryPluginService.pluginName(0);
+
+    private InMemoryPluginService pluginService;
+    private EmbeddedController controller;
+
+    /**
+     * Per-iteration lookup and request counters reported alongside the timing.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LookupCounter {
+
+        public long lookups;
+        public long requests;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pluginService = new InMemoryPluginService(100, 0, true);
+        controller = EmbeddedController.start(pluginService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.stop();
+    }
+
+    @Benchmark
+    public byte[] stopPlugin(LookupCounter counter) throws IOException {
+        return countLookups(counter, "POST", PLUGIN_PATH + "/stop", null);
+    }
+
+    @Benchmark
+    public byte[] getPluginConfig(LookupCounter counter) throws IOException {
+        return countLookups(counter, "GET", PLUGIN_PATH + "/config", null);
+    }
+
+    @Benchmark
+    public byte[] updatePluginConfig(LookupCounter counter) throws IOException {
+        return countLookups(counter, "PUT", PLUGIN_PATH + "/config", "{\"key1\":\"updated\"}");
+    }
+
+    @Benchmark
+    public byte[] missingPlugin(LookupCounter counter) throws IOException {
+        return countLookups(counter, "POST", "/api/plugins/missing/start", null);
+    }
+
+    private byte[] countLookups(LookupCounter counter, String method, String path, String body) throws IOException {
+        long before = pluginService.getLookupCount();
+        byte[] response = controller.request(method, path, body);
+        counter.lookups += pluginService.getLookupCount() - before;
+        counter.requests++;
+        return response;
+    }
+}
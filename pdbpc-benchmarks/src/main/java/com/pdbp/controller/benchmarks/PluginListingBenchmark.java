@@ -0,0 +1,70 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginService;
+import com.pdbp.controller.PluginService.PluginInfo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving a plugin listing with one {@link PluginService#getPluginInfo(String)}
+ * call per name against a single bulk {@link PluginService#listPluginInfos()} call.
+ *
+ * <p>Each registry lookup costs {@code lookupCostTokens} of simulated CPU, so the
+ * gap grows with the plugin count.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PluginListingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pluginCount;
+
+    @Param({"50"})
+    public long lookupCostTokens;
+
+    private PluginService pluginService;
+
+    @Setup
+    public void setUp() {
+        pluginService = new InMemoryPluginService(pluginCount, lookupCostTokens, true);
+    }
+
+    @Benchmark
+    public List<PluginInfo> perNameLookup() {
+        Set<String> names = pluginService.listPlugins();
+        List<PluginInfo> infos = new ArrayList<>(names.size());
+        for (String name : names) {
+            PluginInfo info = pluginService.getPluginInfo(name);
+            if (info != null) {
+                infos.add(info);
+            }
+        }
+        return infos;
+    }
+
+    @Benchmark
+    public List<PluginInfo> bulkLookup() {
+        return new ArrayList<>(pluginService.listPluginInfos());
+    }
+}
@@ -0,0 +1,73 @@
+package com.pdbp.controller.benchmarks;
+
+import com.pdbp.controller.PluginService.PluginInfo;
+import com.pdbp.controller.cache.PluginIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serving a page from the change-event-fed {@link PluginIndex} with
+ * sorting a fresh listing per request, which the controller falls back to
+ * when the service publishes no change events.
+ *
+ * @author Saurabh Maurya
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PluginPageBenchmark {
+
+    @Param({"1000", "100000"})
+    public int pluginCount;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private InMemoryPluginService pluginService;
+    private PluginIndex index;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        pluginService = new InMemoryPluginService(pluginCount, 0, true, true);
+        index = new PluginIndex(pluginService);
+        pluginService.addChangeListener(index);
+        cursor = InMemoryPluginService.pluginName(pluginCount / 2);
+    }
+
+    @Benchmark
+    public PluginIndex.Page indexedPage() {
+        return index.page(cursor, pageSize, null, null);
+    }
+
+    @Benchmark
+    public PluginIndex.Page indexedStateFilteredPage() {
+        return index.page(cursor, pageSize, "STARTED", null);
+    }
+
+    @Benchmark
+    public PluginIndex.Page sortedListingPage() {
+        NavigableMap<String, PluginInfo> plugins = new TreeMap<>();
+        for (PluginInfo info : pluginService.listPluginInfos()) {
+            plugins.put(info.getName(), info);
+        }
+        return PluginIndex.page(plugins, cursor, pageSize, null, null);
+    }
+}
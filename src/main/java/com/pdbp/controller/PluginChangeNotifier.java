@@ -0,0 +1,76 @@
+package com.pdbp.controller;
+
+import com.pdbp.controller.PluginService.PluginChangeEvent;
+import com.pdbp.controller.PluginService.PluginChangeListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener bookkeeping for {@link PluginService} implementations that publish change events.
+ *
+ * <pre>
+ * private final PluginChangeNotifier notifier = new PluginChangeNotifier();
+ *
+ * public boolean addChangeListener(PluginChangeListener listener) {
+ *     return notifier.addListener(listener);
+ * }
+ *
+ * public PluginInfo startPlugin(String pluginName) throws PluginServiceException {
+ *     PluginInfo info = manager.start(pluginName);
+ *     notifier.fire(PluginChangeEvent.Type.STARTED, pluginName);
+ *     return info;
+ * }
+ * </pre>
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginChangeNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PluginChangeNotifier.class);
+
+    private final List<PluginChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener the listener
+     * @return always true, for use as the result of {@link PluginService#addChangeListener}
+     */
+    public boolean addListener(PluginChangeListener listener) {
+        listeners.add(listener);
+        return true;
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(PluginChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies all listeners of a change. A failing listener does not stop the others.
+     *
+     * @param type       kind of change
+     * @param pluginName the plugin that changed, or null for discovery changes
+     */
+    public void fire(PluginChangeEvent.Type type, String pluginName) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        PluginChangeEvent event = new PluginChangeEvent(type, pluginName);
+        for (PluginChangeListener listener : listeners) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                logger.warn("Plugin change listener failed for {} {}", type, pluginName, e);
+            }
+        }
+    }
+}
@@ -1,24 +1,76 @@
 package com.pdbp.controller;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.pdbp.controller.body.RequestBodyException;
+import com.pdbp.controller.body.RequestBodyReader;
+import com.pdbp.controller.cache.PluginIndex;
+import com.pdbp.controller.cache.ResponseCache;
+import com.pdbp.controller.compression.ContentEncoding;
+import com.pdbp.controller.compression.ResponseCompressor;
+import com.pdbp.controller.events.PluginEventStream;
+import com.pdbp.controller.format.DtoSerializerModule;
+import com.pdbp.controller.format.WireFormat;
+import com.pdbp.controller.format.WireFormats;
+import com.pdbp.controller.http.HttpEngine;
+import com.pdbp.controller.http.HttpRequest;
+import com.pdbp.controller.http.HttpResponse;
+import com.pdbp.controller.http.SparkEngine;
+import com.pdbp.controller.dto.BulkOperationRequest;
+import com.pdbp.controller.dto.BulkOperationResultDTO;
+import com.pdbp.controller.dto.OperationDTO;
+import com.pdbp.controller.dto.PluginEventDTO;
 import com.pdbp.controller.dto.PluginInfoDTO;
 import com.pdbp.controller.dto.PluginInstallRequest;
+import com.pdbp.controller.dto.PluginPageDTO;
 import com.pdbp.controller.dto.PluginDescriptorDTO;
+import com.pdbp.controller.metrics.ApiMetricsRecorder;
+import com.pdbp.controller.metrics.OpenMetricsWriter;
+import com.pdbp.controller.operation.ConcurrencyLimitedExecutor;
+import com.pdbp.controller.operation.LifecycleOperation;
+import com.pdbp.controller.operation.OperationRegistry;
+import com.pdbp.controller.startup.PluginStartupScheduler;
+import com.pdbp.controller.startup.StartupReport;
+import com.pdbp.controller.startup.StartupTimings;
 import com.pdbp.controller.util.JsonUtils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import spark.Request;
-import spark.Response;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static spark.Spark.*;
 
 /**
  * REST API controller for plugin management.
@@ -29,155 +81,523 @@ public class PluginController {
 
     private static final Logger logger = LoggerFactory.getLogger(PluginController.class);
 
+    /**
+     * Listings with at least this many items are streamed instead of built as a String.
+     */
+    private static final int STREAMING_THRESHOLD = 100;
+
+    /**
+     * Number of finished async operations kept for polling.
+     */
+    private static final int RETAINED_OPERATIONS = 1000;
+
+    /**
+     * Bulk operation limits: default and maximum parallelism, maximum plugins per call, and how long one call
+     * waits for its results before reporting the rest as failed.
+     */
+    private static final int DEFAULT_BULK_CONCURRENCY = 4;
+    private static final int MAX_BULK_CONCURRENCY = 64;
+    private static final int MAX_BULK_PLUGINS = 10000;
+    private static final long BULK_TIMEOUT_SECONDS = 300;
+
+    /**
+     * Largest request body accepted by default, in bytes.
+     */
+    public static final long DEFAULT_MAX_REQUEST_BODY_SIZE = 1024 * 1024;
+
+    /**
+     * Maximum number of pre-encoded response bodies kept between plugin changes.
+     */
+    private static final int MAX_CACHED_RESPONSES = 10000;
+
+    private static final String PLUGINS_CACHE_KEY = "plugins";
+    private static final String DISCOVER_CACHE_KEY = "discover";
+    private static final String PLUGIN_CACHE_KEY_PREFIX = "plugin:";
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MATCH = "If-Match";
+    private static final String CONFIG_ETAG_PREFIX = "\"cfg-";
+
+    /**
+     * Attempts at an unconditional config update that keeps losing to concurrent updates before it answers 409.
+     */
+    private static final int MAX_CONFIG_UPDATE_ATTEMPTS = 3;
+    private static final String ACCEPT = "Accept";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    /**
+     * Compression settings: smallest body worth compressing, deflate level and idle deflaters kept per coding.
+     */
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+    private static final int COMPRESSION_LEVEL = 6;
+    private static final int DEFLATER_POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Page size of paginated plugin listings: default when no limit is given, and maximum.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Event stream limits: connected clients, frames buffered per client and keep-alive interval.
+     */
+    private static final int MAX_EVENT_SUBSCRIBERS = 10000;
+    private static final int EVENT_BUFFER_CAPACITY = 256;
+    private static final long EVENT_HEARTBEAT_SECONDS = 15;
+
+    /**
+     * Request and response body types, with writers and readers built for each by {@link #warmUpInBackground()}.
+     */
+    private static final TypeFactory TYPES = TypeFactory.defaultInstance();
+    private static final JavaType PLUGIN_INFO = TYPES.constructType(PluginInfoDTO.class);
+    private static final JavaType PLUGIN_INFO_LIST = TYPES.constructCollectionType(List.class, PluginInfoDTO.class);
+    private static final JavaType PLUGIN_DESCRIPTOR_LIST =
+            TYPES.constructCollectionType(List.class, PluginDescriptorDTO.class);
+    private static final JavaType PLUGIN_PAGE = TYPES.constructType(PluginPageDTO.class);
+    private static final JavaType OPERATION = TYPES.constructType(OperationDTO.class);
+    private static final JavaType BULK_RESULT = TYPES.constructType(BulkOperationResultDTO.class);
+    private static final JavaType INSTALL_REQUEST = TYPES.constructType(PluginInstallRequest.class);
+    private static final JavaType BULK_REQUEST = TYPES.constructType(BulkOperationRequest.class);
+    private static final JavaType CONFIG = TYPES.constructMapType(Map.class, String.class, String.class);
+    private static final JavaType METRICS = TYPES.constructMapType(Map.class, String.class, Object.class);
+
     private final PluginService pluginService;
+    private final WireFormats formats;
     private final ObjectMapper objectMapper;
+    private final ApiMetricsRecorder apiMetrics;
+    private final OpenMetricsWriter metricsWriter;
+    private final OperationRegistry operations;
+    private final ExecutorService lifecycleExecutor;
+    private final StartupTimings startupTimings;
+    private final ResponseCache responseCache;
+    private final String etagPrefix;
+    private final PluginEventStream eventStream;
+    private final PluginIndex pluginIndex;
+    private final ResponseCompressor compressor;
+    private final RequestBodyReader bodyReader;
 
     public PluginController(PluginService pluginService) {
+        this(pluginService, newLifecycleExecutor(Math.max(2, Runtime.getRuntime().availableProcessors()), 256));
+    }
+
+    /**
+     * Creates a controller that runs async lifecycle operations on the given executor.
+     *
+     * @param pluginService     the plugin service
+     * @param lifecycleExecutor bounded executor for async operations; should reject when saturated
+     */
+    public PluginController(PluginService pluginService, ExecutorService lifecycleExecutor) {
+        this(pluginService, lifecycleExecutor, DEFAULT_MAX_REQUEST_BODY_SIZE);
+    }
+
+    /**
+     * Creates a controller with a custom request body limit.
+     *
+     * @param pluginService      the plugin service
+     * @param lifecycleExecutor  bounded executor for async operations; should reject when saturated
+     * @param maxRequestBodySize largest accepted request body, in bytes; larger bodies get a 413
+     */
+    public PluginController(PluginService pluginService, ExecutorService lifecycleExecutor, long maxRequestBodySize) {
+        this.startupTimings = new StartupTimings();
         this.pluginService = pluginService;
-        this.objectMapper = new ObjectMapper();
+        this.formats = new WireFormats(PluginController::newObjectMapper, PLUGIN_INFO, PLUGIN_INFO_LIST,
+                PLUGIN_DESCRIPTOR_LIST, PLUGIN_PAGE, OPERATION, BULK_RESULT, INSTALL_REQUEST, BULK_REQUEST, CONFIG,
+                METRICS);
+        this.objectMapper = formats.mapper(WireFormat.JSON);
+        this.apiMetrics = new ApiMetricsRecorder();
+        this.metricsWriter = new OpenMetricsWriter();
+        this.lifecycleExecutor = lifecycleExecutor;
+        this.operations = new OperationRegistry(lifecycleExecutor, RETAINED_OPERATIONS);
+        this.responseCache = new ResponseCache(MAX_CACHED_RESPONSES);
+        this.compressor = new ResponseCompressor(MIN_COMPRESSED_SIZE, COMPRESSION_LEVEL, DEFLATER_POOL_SIZE);
+        this.bodyReader = new RequestBodyReader(maxRequestBodySize);
+        // Versions restart at zero, so tags carry the controller start time to stay unique across restarts
+        this.etagPrefix = "\"" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        ResponseCache cache = responseCache;
+        PluginIndex index = new PluginIndex(pluginService);
+        // One listener, index first: bumping the cache version before the index is marked dirty would let a
+        // request cache a stale page under the new version and later answer 304 for it
+        if (pluginService.addChangeListener(event -> {
+            index.onChange(event);
+            cache.invalidate();
+        })) {
+            responseCache.enable();
+            this.pluginIndex = index;
+            this.eventStream = new PluginEventStream(objectMapper.writerFor(PluginEventDTO.class),
+                    MAX_EVENT_SUBSCRIBERS, EVENT_BUFFER_CAPACITY, EVENT_HEARTBEAT_SECONDS);
+            pluginService.addChangeListener(eventStream);
+        } else {
+            logger.info("Plugin service does not publish change events, response caching and /api/events disabled");
+            this.eventStream = null;
+            this.pluginIndex = null;
+        }
+    }
+
+    /**
+     * Creates the mapper for one wire format; JSON, CBOR and Smile all share this configuration.
+     * The hottest DTOs are written by hand-written serializers instead of reflection.
+     */
+    private static ObjectMapper newObjectMapper(JsonFactory factory) {
+        return new ObjectMapper(factory).registerModule(new DtoSerializerModule());
     }
 
     /**
-     * Registers all REST API routes.
+     * Creates a bounded executor for async lifecycle operations.
+     *
+     * <p>Threads are daemons, and submissions beyond the queue capacity are
+     * rejected so that callers get a 503 instead of an unbounded backlog.
+     *
+     * @param threads       number of worker threads
+     * @param queueCapacity number of operations that may wait for a thread
+     * @return the executor
+     */
+    public static ExecutorService newLifecycleExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdbp-lifecycle-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Registers all REST API routes with Spark's static instance, configured through {@code spark.Spark}.
      */
     public void registerRoutes() {
-        configureCors();
-        registerHealthCheck();
-        registerPluginRoutes();
-        registerErrorHandlers();
+        registerRoutes(new SparkEngine());
+    }
+
+    /**
+     * Registers all REST API routes with an HTTP engine.
+     *
+     * <p>The engine is not started; call {@link HttpEngine#start()} afterwards.
+     * Spark engines also start on their own once routes are registered.
+     *
+     * @param engine the engine, e.g. from {@link com.pdbp.controller.http.HttpEngines#create(String, int)}
+     */
+    public void registerRoutes(HttpEngine engine) {
+        long start = System.nanoTime();
+        configureCors(engine);
+        registerMetricsFilters(engine);
+        registerHealthCheck(engine);
+        registerMetricsEndpoint(engine);
+        registerPluginRoutes(engine);
+        registerErrorHandlers(engine);
+        startupTimings.routesRegistered(System.nanoTime() - start);
+    }
+
+    /**
+     * Builds and exercises the serializers of every request and response type on a background thread.
+     *
+     * <p>Without it, each writer and reader is built when a request first needs
+     * it, and that request also pays for loading and running the serializer
+     * code. Call this right after {@link #registerRoutes()} so that the work
+     * overlaps server startup; the time it took is reported under
+     * {@code startup} in {@code /api/metrics}.
+     *
+     * @return completes when warm-up has finished; warm-up failures are logged and do not affect requests
+     */
+    public CompletableFuture<Void> warmUpInBackground() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                formats.warmUp(warmUpSamples());
+                startupTimings.mappersWarmedUp(System.nanoTime() - start);
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Serializer warm-up failed", e);
+                done.completeExceptionally(e);
+            }
+        }, "pdbp-warmup");
+        thread.setDaemon(true);
+        thread.start();
+        return done;
+    }
+
+    /**
+     * Returns a small value of each request and response type for serializer warm-up.
+     */
+    private static Map<JavaType, Object> warmUpSamples() {
+        PluginInfoDTO plugin = new PluginInfoDTO("warm-up", "1.0", "STARTED", "/plugins/warm-up.jar");
+        List<PluginInfoDTO> plugins = Collections.singletonList(plugin);
+        Map<String, String> config = Collections.singletonMap("key", "value");
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("plugins", 1);
+        metrics.put("uptime", 1.5);
+        metrics.put("startup", Collections.singletonMap("ready", true));
+        Map<JavaType, Object> samples = new HashMap<>();
+        samples.put(PLUGIN_INFO, plugin);
+        samples.put(PLUGIN_INFO_LIST, plugins);
+        samples.put(PLUGIN_DESCRIPTOR_LIST, Collections.singletonList(
+                new PluginDescriptorDTO("warm-up", "/plugins/warm-up.jar", "com.example.WarmUp", 1024)));
+        samples.put(PLUGIN_PAGE, new PluginPageDTO(plugins, "warm-up"));
+        samples.put(OPERATION, new OperationDTO("op-1", "START", "warm-up", "SUCCEEDED", 1L, 2L, plugin, null));
+        samples.put(BULK_RESULT, new BulkOperationResultDTO("warm-up", "SUCCEEDED", plugin, null));
+        samples.put(INSTALL_REQUEST, new PluginInstallRequest("warm-up", "/plugins/warm-up.jar", "com.example.WarmUp"));
+        samples.put(BULK_REQUEST, new BulkOperationRequest(Collections.singletonList("warm-up"), 1));
+        samples.put(CONFIG, config);
+        samples.put(METRICS, metrics);
+        return samples;
+    }
+
+    /**
+     * Starts all installed plugins in dependency order and marks the controller ready.
+     *
+     * <p>Independent plugins start in parallel. The boot-to-ready time and the
+     * per-plugin results are reported under {@code startup} in {@code /api/metrics}.
+     *
+     * @param timeout per-plugin start timeout
+     * @param unit    unit of {@code timeout}
+     * @return the startup report
+     * @throws PluginService.PluginServiceException if plugin dependencies contain a cycle
+     */
+    public StartupReport startInstalledPlugins(long timeout, TimeUnit unit) throws PluginService.PluginServiceException {
+        PluginStartupScheduler scheduler = new PluginStartupScheduler(pluginService,
+                Runtime.getRuntime().availableProcessors(), timeout, unit);
+        StartupReport report = scheduler.startAll(pluginService.listPluginInfos());
+        startupTimings.pluginStartupCompleted(report);
+        logger.info("Started {} plugins in {} ms", report.getResults().size(), report.getDurationMillis());
+        return report;
     }
 
     /**
      * Configures CORS headers.
      */
-    private void configureCors() {
-        options("/*", (request, response) -> {
-            String headers = request.headers("Access-Control-Request-Headers");
+    private void configureCors(HttpEngine engine) {
+        engine.route("OPTIONS", "/*", (request, response) -> {
+            String headers = request.header("Access-Control-Request-Headers");
             if (headers != null) {
                 response.header("Access-Control-Allow-Headers", headers);
             }
-            String method = request.headers("Access-Control-Request-Method");
+            String method = request.header("Access-Control-Request-Method");
             if (method != null) {
                 response.header("Access-Control-Allow-Methods", method);
             }
             return "OK";
         });
 
-        before((request, response) -> {
+        engine.before((request, response) -> {
             response.header("Access-Control-Allow-Origin", "*");
+            response.header("Access-Control-Expose-Headers", "ETag");
             response.type("application/json");
+        });
+    }
 
-            // Record API request (skip OPTIONS and /health)
-            String path = request.pathInfo();
-            if (path != null && !path.equals("/health") && !request.requestMethod().equals("OPTIONS")) {
-                pluginService.recordApiRequest(path);
+    /**
+     * Registers filters that count and time API requests per route.
+     */
+    private void registerMetricsFilters(HttpEngine engine) {
+        engine.before((request, response) -> {
+            // Record API request against its route template (skip OPTIONS, /health and /metrics)
+            String path = request.path();
+            if (path != null && !path.equals("/health") && !path.equals("/metrics")
+                    && !request.method().equals("OPTIONS")) {
+                ApiMetricsRecorder.RouteMetrics route = apiMetrics.beginRequest(request.method(), path);
+                pluginService.recordApiRequest(route.getTemplate() != null ? route.getTemplate() : path);
             }
         });
+
+        // afterAfter also runs when a route throws, so every started request is timed
+        engine.afterAfter((request, response) -> {
+            apiMetrics.endRequest();
+            startupTimings.responseSent();
+        });
     }
 
     /**
      * Registers health check endpoint.
      */
-    private void registerHealthCheck() {
-        get("/health", (req, res) -> {
+    private void registerHealthCheck(HttpEngine engine) {
+        engine.route("GET", "/health", (req, res) -> {
             res.status(200);
             return "{\"status\":\"UP\"}";
         });
     }
 
+    /**
+     * Registers the OpenMetrics scrape endpoint.
+     */
+    private void registerMetricsEndpoint(HttpEngine engine) {
+        engine.route("GET", "/metrics", this::scrapeMetrics);
+    }
+
     /**
      * Registers plugin management routes.
      */
-    private void registerPluginRoutes() {
-        get("/api/plugins", this::listPlugins);
-        get("/api/plugins/discover", this::discoverPlugins);
-        get("/api/plugins/:name", this::getPluginInfo);
-        get("/api/plugins/:name/config", this::getPluginConfig);
-        get("/api/metrics", this::getMetrics);
-        post("/api/plugins/install", this::installPlugin);
-        post("/api/plugins/:name/start", this::startPlugin);
-        post("/api/plugins/:name/stop", this::stopPlugin);
-        put("/api/plugins/:name/config", this::updatePluginConfig);
-        delete("/api/plugins/:name", this::unloadPlugin);
+    private void registerPluginRoutes(HttpEngine engine) {
+        route(engine, "GET", "/api/plugins", this::listPlugins);
+        route(engine, "GET", "/api/plugins/discover", this::discoverPlugins);
+        route(engine, "GET", "/api/plugins/:name", this::getPluginInfo);
+        route(engine, "GET", "/api/plugins/:name/config", this::getPluginConfig);
+        route(engine, "GET", "/api/metrics", this::getMetrics);
+        route(engine, "POST", "/api/plugins/install", this::installPlugin);
+        // Bulk routes must precede /:name/start etc., which would otherwise match "_bulk" as a name
+        route(engine, "POST", "/api/plugins/_bulk/start", this::bulkStartPlugins);
+        route(engine, "POST", "/api/plugins/_bulk/stop", this::bulkStopPlugins);
+        route(engine, "POST", "/api/plugins/_bulk/unload", this::bulkUnloadPlugins);
+        route(engine, "POST", "/api/plugins/:name/start", this::startPlugin);
+        route(engine, "POST", "/api/plugins/:name/stop", this::stopPlugin);
+        route(engine, "PUT", "/api/plugins/:name/config", this::updatePluginConfig);
+        route(engine, "PATCH", "/api/plugins/:name/config", this::patchPluginConfig);
+        route(engine, "DELETE", "/api/plugins/:name", this::unloadPlugin);
+        route(engine, "GET", "/api/operations/:id", this::getOperation);
+        route(engine, "GET", "/api/events", this::streamEvents);
+    }
+
+    /**
+     * Registers a route, and its template for API metrics.
+     */
+    private void route(HttpEngine engine, String method, String template, HttpEngine.Route route) {
+        engine.route(method, apiMetrics.registerRoute(method, template), route);
     }
 
     /**
      * Registers error handlers.
      */
-    private void registerErrorHandlers() {
-        notFound((req, res) -> {
+    private void registerErrorHandlers(HttpEngine engine) {
+        engine.notFound((req, res) -> {
             res.type("application/json");
             res.status(404);
-            return JsonUtils.errorResponse("Resource not found: " + req.pathInfo());
+            return JsonUtils.errorResponse("Resource not found: " + req.path());
         });
 
-        exception(PluginService.PluginServiceException.class, (exception, request, response) -> {
+        engine.exception(PluginService.PluginServiceException.class, (exception, request, response) -> {
             response.status(400);
             response.type("application/json");
             String errorMsg = getRootCauseMessage(exception);
-            response.body(JsonUtils.errorResponse(errorMsg));
-            // Record API error
-            if (request.pathInfo() != null) {
-                pluginService.recordApiError(request.pathInfo());
-            }
+            recordApiError(request);
+            return JsonUtils.errorResponse(errorMsg);
         });
 
-        exception(Exception.class, (exception, request, response) -> {
+        engine.exception(Exception.class, (exception, request, response) -> {
             logger.error("Unexpected error", exception);
             response.status(500);
             response.type("application/json");
-            response.body(JsonUtils.errorResponse("Internal server error"));
-            // Record API error
-            if (request.pathInfo() != null) {
-                pluginService.recordApiError(request.pathInfo());
-            }
+            recordApiError(request);
+            return JsonUtils.errorResponse("Internal server error");
         });
     }
 
     /**
-     * Lists all installed plugins.
+     * Records an API error against the route template of the request.
      */
-    private String listPlugins(Request request, Response response) {
-        return execute(() -> {
-            Set<String> pluginNames = pluginService.listPlugins();
-            List<PluginInfoDTO> plugins = pluginNames.stream().map(this::toPluginInfoDTO).collect(Collectors.toList());
-            return successResponse(response, 200, plugins);
-        }, response);
+    private void recordApiError(HttpRequest request) {
+        String path = request.path();
+        if (path != null) {
+            ApiMetricsRecorder.RouteMetrics route = apiMetrics.recordError(request.method(), path);
+            pluginService.recordApiError(route.getTemplate() != null ? route.getTemplate() : path);
+        }
+    }
+
+    /**
+     * Lists installed plugins.
+     *
+     * GET /api/plugins[?limit=100&after=name&state=STARTED&prefix=my-]
+     *
+     * Without query parameters the response is an array of all plugins. With any of
+     * them it is one page sorted by name: { "plugins": [...], "nextCursor": "name" }.
+     */
+    private Object listPlugins(HttpRequest request, HttpResponse response) {
+        return execute(() -> conditionalResponse(request, response, () -> {
+            if (isPageRequest(request)) {
+                return listPluginPage(request, response);
+            }
+            if (responseCache.isEnabled()) {
+                return cachedResponse(request, response, PLUGINS_CACHE_KEY, PLUGIN_INFO_LIST,
+                        () -> toDTOs(pluginService.listPluginInfos(), this::toPluginInfoDTO));
+            }
+            return listResponse(request, response, pluginService.listPluginInfos(), this::toPluginInfoDTO,
+                    PLUGIN_INFO_LIST);
+        }), response);
+    }
+
+    /**
+     * Returns true if the listing request asks for pagination or filtering.
+     */
+    private boolean isPageRequest(HttpRequest request) {
+        return request.queryParam("limit") != null || request.queryParam("after") != null
+                || request.queryParam("state") != null || request.queryParam("prefix") != null;
+    }
+
+    /**
+     * Serves one page of the plugin listing from the sorted plugin index.
+     */
+    private Object listPluginPage(HttpRequest request, HttpResponse response) throws Exception {
+        int limit = DEFAULT_PAGE_SIZE;
+        String limitParam = request.queryParam("limit");
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                limit = 0;
+            }
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return errorResponse(response, 400, "limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+        }
+        String after = emptyToNull(request.queryParam("after"));
+        String state = emptyToNull(request.queryParam("state"));
+        String prefix = emptyToNull(request.queryParam("prefix"));
+
+        if (pluginIndex == null) {
+            // No change events to keep an index current, so sort a fresh listing
+            NavigableMap<String, PluginService.PluginInfo> plugins = new TreeMap<>();
+            for (PluginService.PluginInfo info : pluginService.listPluginInfos()) {
+                plugins.put(info.getName(), info);
+            }
+            PluginIndex.Page page = PluginIndex.page(plugins, after, limit, state, prefix);
+            return successResponse(request, response, 200, toPluginPageDTO(page), PLUGIN_PAGE);
+        }
+        int pageLimit = limit;
+        String key = PLUGINS_CACHE_KEY + '\0' + limit + '\0' + after + '\0' + state + '\0' + prefix;
+        return cachedResponse(request, response, key, PLUGIN_PAGE,
+                () -> toPluginPageDTO(pluginIndex.page(after, pageLimit, state, prefix)));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
     }
 
     /**
      * Gets information about a specific plugin.
      */
-    private String getPluginInfo(Request request, Response response) {
-        return execute(() -> {
-            String pluginName = request.params(":name");
-            PluginService.PluginInfo info = pluginService.getPluginInfo(pluginName);
-            if (info == null) {
+    private Object getPluginInfo(HttpRequest request, HttpResponse response) {
+        return execute(() -> conditionalResponse(request, response, () -> {
+            String pluginName = request.pathParam("name");
+            Object body = cachedResponse(request, response, PLUGIN_CACHE_KEY_PREFIX + pluginName, PLUGIN_INFO, () -> {
+                PluginService.PluginInfo info = pluginService.getPluginInfo(pluginName);
+                return info != null ? toPluginInfoDTO(info) : null;
+            });
+            if (body == null) {
                 return errorResponse(response, 404, "Plugin not found: " + pluginName);
             }
-            return successResponse(response, 200, toPluginInfoDTO(info));
-        }, response);
+            return body;
+        }), response);
     }
 
     /**
      * Discovers plugins in the plugin directory.
      */
-    private String discoverPlugins(Request request, Response response) {
-        return execute(() -> {
+    private Object discoverPlugins(HttpRequest request, HttpResponse response) {
+        return execute(() -> conditionalResponse(request, response, () -> {
+            if (responseCache.isEnabled()) {
+                return cachedResponse(request, response, DISCOVER_CACHE_KEY, PLUGIN_DESCRIPTOR_LIST,
+                        () -> toDTOs(pluginService.discoverPlugins(), this::toPluginDescriptorDTO));
+            }
             List<PluginService.PluginDescriptor> descriptors = pluginService.discoverPlugins();
-            List<PluginDescriptorDTO> plugins = descriptors.stream().map(
-                    desc -> new PluginDescriptorDTO(desc.getName(), desc.getJarPath(), desc.getClassName(),
-                            desc.getSize())).collect(Collectors.toList());
-            return successResponse(response, 200, plugins);
-        }, response);
+            return listResponse(request, response, descriptors, this::toPluginDescriptorDTO, PLUGIN_DESCRIPTOR_LIST);
+        }), response);
     }
 
     /**
      * Installs a plugin from a JAR file.
      */
-    private String installPlugin(Request request, Response response) {
+    private Object installPlugin(HttpRequest request, HttpResponse response) {
         try {
-            PluginInstallRequest installRequest = objectMapper.readValue(request.body(), PluginInstallRequest.class);
+            PluginInstallRequest installRequest = readBody(request, INSTALL_REQUEST);
 
             String pluginName = installRequest.getPluginName();
             String jarPath = installRequest.getJarPath();
@@ -187,9 +607,16 @@ public class PluginController {
                 return errorResponse(response, 400, "Missing required fields: pluginName, jarPath. className is optional (SPI will discover if not provided).");
             }
 
+            if (isAsync(request)) {
+                return submitOperation(request, response, LifecycleOperation.Type.INSTALL, pluginName,
+                        executor -> pluginService.installPluginAsync(pluginName, jarPath, className, executor));
+            }
+
             // className is optional - SPI will discover it if not provided
             PluginService.PluginInfo info = pluginService.installPlugin(pluginName, jarPath, className);
-            return successResponse(response, 201, toPluginInfoDTO(info));
+            return successResponse(request, response, 201, toPluginInfoDTO(info), PLUGIN_INFO);
+        } catch (RequestBodyException e) {
+            return errorResponse(response, e.getStatus(), e.getMessage());
         } catch (PluginService.PluginServiceException e) {
             return handleServiceException(response, e);
         } catch (Exception e) {
@@ -200,39 +627,49 @@ public class PluginController {
     /**
      * Starts a plugin.
      */
-    private String startPlugin(Request request, Response response) {
-        return execute(() -> {
-            String pluginName = request.params(":name");
-            if (!validatePluginExists(pluginName, response)) {
-                return null; // Error response already set
+    private Object startPlugin(HttpRequest request, HttpResponse response) {
+        String pluginName = request.pathParam("name");
+        return executeForPlugin(pluginName, () -> {
+            if (isAsync(request)) {
+                return submitOperation(request, response, LifecycleOperation.Type.START, pluginName,
+                        executor -> pluginService.startPluginAsync(pluginName, executor));
             }
             PluginService.PluginInfo info = pluginService.startPlugin(pluginName);
-            return successResponse(response, 200, toPluginInfoDTO(info));
+            if (info == null) {
+                return errorResponse(response, 404, "Plugin not found: " + pluginName);
+            }
+            return successResponse(request, response, 200, toPluginInfoDTO(info), PLUGIN_INFO);
         }, response);
     }
 
     /**
      * Stops a plugin.
      */
-    private String stopPlugin(Request request, Response response) {
-        return execute(() -> {
-            String pluginName = request.params(":name");
-            if (!validatePluginExists(pluginName, response)) {
-                return null; // Error response already set
+    private Object stopPlugin(HttpRequest request, HttpResponse response) {
+        String pluginName = request.pathParam("name");
+        return executeForPlugin(pluginName, () -> {
+            if (isAsync(request)) {
+                return submitOperation(request, response, LifecycleOperation.Type.STOP, pluginName,
+                        executor -> pluginService.stopPluginAsync(pluginName, executor));
             }
             PluginService.PluginInfo info = pluginService.stopPlugin(pluginName);
-            return successResponse(response, 200, toPluginInfoDTO(info));
+            if (info == null) {
+                return errorResponse(response, 404, "Plugin not found: " + pluginName);
+            }
+            return successResponse(request, response, 200, toPluginInfoDTO(info), PLUGIN_INFO);
         }, response);
     }
 
     /**
      * Unloads a plugin.
      */
-    private String unloadPlugin(Request request, Response response) {
-        return execute(() -> {
-            String pluginName = request.params(":name");
-            if (!validatePluginExists(pluginName, response)) {
-                return null; // Error response already set
+    private Object unloadPlugin(HttpRequest request, HttpResponse response) {
+        String pluginName = request.pathParam("name");
+        return executeForPlugin(pluginName, () -> {
+            if (isAsync(request)) {
+                return submitOperation(request, response, LifecycleOperation.Type.UNLOAD, pluginName,
+                        executor -> pluginService.unloadPluginAsync(pluginName, executor)
+                                .thenApply(ignored -> (PluginService.PluginInfo) null));
             }
             pluginService.unloadPlugin(pluginName);
             response.status(200);
@@ -241,13 +678,195 @@ public class PluginController {
     }
 
     /**
-     * Gets platform metrics.
+     * Starts several plugins.
+     *
+     * POST /api/plugins/_bulk/start
+     *
+     * Request Body: { "plugins": ["a", "b"], "concurrency": 4 }
+     * Response: streamed array of { "pluginName", "status", "plugin", "error" } in completion order
+     */
+    private String bulkStartPlugins(HttpRequest request, HttpResponse response) {
+        return bulkOperation(request, response, pluginService::startPlugins);
+    }
+
+    /**
+     * Stops several plugins.
+     *
+     * POST /api/plugins/_bulk/stop
+     */
+    private String bulkStopPlugins(HttpRequest request, HttpResponse response) {
+        return bulkOperation(request, response, pluginService::stopPlugins);
+    }
+
+    /**
+     * Unloads several plugins.
+     *
+     * POST /api/plugins/_bulk/unload
+     */
+    private String bulkUnloadPlugins(HttpRequest request, HttpResponse response) {
+        return bulkOperation(request, response, pluginService::unloadPlugins);
+    }
+
+    /**
+     * Runs a bulk operation with bounded parallelism and streams per-plugin results as they complete.
+     */
+    private String bulkOperation(HttpRequest request, HttpResponse response,
+            BiFunction<Collection<String>, Executor, ? extends Map<String, ? extends CompletableFuture<?>>> operation) {
+        try {
+            BulkOperationRequest bulkRequest = readBody(request, BULK_REQUEST);
+            if (bulkRequest.getPlugins() == null || bulkRequest.getPlugins().isEmpty()) {
+                return errorResponse(response, 400, "Missing required field: plugins");
+            }
+            Set<String> pluginNames = new LinkedHashSet<>(bulkRequest.getPlugins());
+            if (pluginNames.size() > MAX_BULK_PLUGINS) {
+                return errorResponse(response, 400, "Too many plugins in one call, maximum is " + MAX_BULK_PLUGINS);
+            }
+            int concurrency = bulkRequest.getConcurrency() != null ? bulkRequest.getConcurrency()
+                    : DEFAULT_BULK_CONCURRENCY;
+            if (concurrency < 1 || concurrency > MAX_BULK_CONCURRENCY) {
+                return errorResponse(response, 400, "concurrency must be between 1 and " + MAX_BULK_CONCURRENCY);
+            }
+
+            BlockingQueue<BulkOperationResultDTO> results = new LinkedBlockingQueue<>();
+            Executor executor = new ConcurrencyLimitedExecutor(lifecycleExecutor, concurrency);
+            Map<String, ? extends CompletableFuture<?>> futures = operation.apply(pluginNames, executor);
+            futures.forEach((pluginName, future) ->
+                    future.whenComplete((result, failure) -> results.add(toBulkResultDTO(pluginName, result, failure))));
+
+            response.status(200);
+            WireFormat format = responseFormat(request, response);
+            ObjectWriter resultWriter = formats.writer(format, BULK_RESULT);
+            try (JsonGenerator generator = formats.mapper(format).getFactory()
+                    .createGenerator(response.outputStream(), JsonEncoding.UTF8)) {
+                generator.writeStartArray();
+                Set<String> pending = new LinkedHashSet<>(pluginNames);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(BULK_TIMEOUT_SECONDS);
+                for (int i = 0; i < futures.size(); i++) {
+                    BulkOperationResultDTO result = results.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (result == null) {
+                        break;
+                    }
+                    pending.remove(result.getPluginName());
+                    resultWriter.writeValue(generator, result);
+                    generator.flush();
+                }
+                // Plugins still running keep going; the caller can check their state afterwards
+                for (String pluginName : pending) {
+                    String error = futures.containsKey(pluginName)
+                            ? "Timed out after " + BULK_TIMEOUT_SECONDS + " seconds" : "Operation was not started";
+                    resultWriter.writeValue(generator, new BulkOperationResultDTO(pluginName,
+                            LifecycleOperation.Status.FAILED.name(), null, error));
+                }
+                generator.writeEndArray();
+            }
+            return "";
+        } catch (RequestBodyException e) {
+            return errorResponse(response, e.getStatus(), e.getMessage());
+        } catch (Exception e) {
+            return handleUnexpectedException(response, e, "running bulk operation");
+        }
+    }
+
+    /**
+     * Gets the status of an async lifecycle operation.
+     *
+     * GET /api/operations/{id}
+     */
+    private Object getOperation(HttpRequest request, HttpResponse response) {
+        return execute(() -> {
+            String operationId = request.pathParam("id");
+            LifecycleOperation operation = operations.get(operationId);
+            if (operation == null) {
+                return errorResponse(response, 404, "Operation not found: " + operationId);
+            }
+            return successResponse(request, response, 200, toOperationDTO(operation), OPERATION);
+        }, response);
+    }
+
+    /**
+     * Streams plugin changes as Server-Sent Events.
+     *
+     * GET /api/events
+     *
+     * Response: text/event-stream of INSTALLED, STARTED, STOPPED, UNLOADED, CONFIG_UPDATED
+     * and DISCOVERY_CHANGED events; the connection stays open.
      */
-    private String getMetrics(Request request, Response response) {
+    private Object streamEvents(HttpRequest request, HttpResponse response) {
+        return execute(() -> {
+            if (eventStream == null) {
+                return errorResponse(response, 501, "Plugin service does not publish change events");
+            }
+            HttpServletRequest servletRequest = request.unwrap(HttpServletRequest.class);
+            HttpServletResponse servletResponse = response.unwrap(HttpServletResponse.class);
+            if (servletRequest == null || servletResponse == null) {
+                // Subscribers are written with non-blocking servlet I/O
+                return errorResponse(response, 501, "Event streaming requires a servlet-based HTTP engine");
+            }
+            if (!eventStream.subscribe(servletRequest, servletResponse)) {
+                return errorResponse(response, 503, "Too many event stream subscribers, retry later");
+            }
+            // The response is committed, so the engine writes nothing more
+            return "";
+        }, response);
+    }
+
+    /**
+     * Returns true if the client asked for the operation to run asynchronously ({@code ?async=true}).
+     */
+    private boolean isAsync(HttpRequest request) {
+        return Boolean.parseBoolean(request.queryParam("async"));
+    }
+
+    /**
+     * Submits an async lifecycle operation and responds with 202 and the operation handle.
+     */
+    private Object submitOperation(HttpRequest request, HttpResponse response, LifecycleOperation.Type type,
+            String pluginName,
+            Function<Executor, CompletableFuture<PluginService.PluginInfo>> action)
+            throws Exception {
+        LifecycleOperation operation;
+        try {
+            operation = operations.submit(type, pluginName, action);
+        } catch (RejectedExecutionException e) {
+            return errorResponse(response, 503, "Too many pending lifecycle operations, retry later");
+        }
+        response.header("Location", "/api/operations/" + operation.getId());
+        return successResponse(request, response, 202, toOperationDTO(operation), OPERATION);
+    }
+
+    /**
+     * Gets platform metrics, including per-route API counters and latencies.
+     */
+    private Object getMetrics(HttpRequest request, HttpResponse response) {
+        return execute(() -> {
+            Map<String, Object> metrics = new LinkedHashMap<>(pluginService.getMetrics());
+            metrics.put("api", apiMetrics.snapshot());
+            metrics.put("startup", startupTimings.toMap());
+            metrics.put("responseCache", responseCache.snapshot());
+            if (eventStream != null) {
+                metrics.put("events", eventStream.snapshot());
+            }
+            metrics.put("compression", compressor.snapshot());
+            return sendBody(request, response, metrics, METRICS);
+        }, response);
+    }
+
+    /**
+     * Renders controller and platform metrics in OpenMetrics text format.
+     *
+     * GET /metrics
+     */
+    private Object scrapeMetrics(HttpRequest request, HttpResponse response) {
         return execute(() -> {
-            Map<String, Object> metrics = pluginService.getMetrics();
             response.status(200);
-            return objectMapper.writeValueAsString(metrics);
+            response.type(OpenMetricsWriter.CONTENT_TYPE);
+            synchronized (metricsWriter) {
+                metricsWriter.reset();
+                apiMetrics.writeTo(metricsWriter);
+                pluginService.writeMetrics(metricsWriter);
+                metricsWriter.eof();
+                return metricsWriter.toString();
+            }
         }, response);
     }
 
@@ -256,19 +875,23 @@ public class PluginController {
      * 
      * GET /api/plugins/{name}/config
      * 
-     * Response: { "key1": "value1", "key2": "value2" }
+     * Response: { "key1": "value1", "key2": "value2" }, with the config version as ETag
      */
-    private String getPluginConfig(Request request, Response response) {
-        return execute(() -> {
-            String pluginName = request.params(":name");
-
-            // Validate plugin exists
-            if (pluginService.getPluginInfo(pluginName) == null) {
+    private Object getPluginConfig(HttpRequest request, HttpResponse response) {
+        String pluginName = request.pathParam("name");
+        return executeForPlugin(pluginName, () -> {
+            // A null config means the plugin is not installed
+            PluginService.ConfigSnapshot snapshot = pluginService.getPluginConfigSnapshot(pluginName);
+            if (snapshot == null) {
                 return errorResponse(response, 404, "Plugin not found: " + pluginName);
             }
-
-            Map<String, String> config = pluginService.getPluginConfig(pluginName);
-            return successResponse(response, 200, config);
+            String etag = configEtag(request, snapshot.getVersion());
+            response.header("ETag", etag);
+            if (etagMatches(request.header(IF_NONE_MATCH), etag)) {
+                response.status(304);
+                return "";
+            }
+            return successResponse(request, response, 200, snapshot.getConfig(), CONFIG);
         }, response);
     }
 
@@ -279,51 +902,148 @@ public class PluginController {
      * 
      * Request Body: { "key1": "newValue1", "key2": "newValue2" }
      * Response: { "status": "success", "message": "Configuration updated" }
+     *
+     * Only keys whose value changes are passed to the plugin. With If-Match, the
+     * update applies only if the config is still at that ETag, otherwise 412.
+     * Without it, 409 if concurrent updates keep winning.
      */
-    private String updatePluginConfig(Request request, Response response) {
+    private Object updatePluginConfig(HttpRequest request, HttpResponse response) {
+        String pluginName = request.pathParam("name");
         try {
-            String pluginName = request.params(":name");
-            
-            // Validate plugin exists
-            if (pluginService.getPluginInfo(pluginName) == null) {
-                return errorResponse(response, 404, "Plugin not found: " + pluginName);
-            }
-
             // Parse request body
-            @SuppressWarnings("unchecked")
-            Map<String, String> config = objectMapper.readValue(request.body(), Map.class);
+            Map<String, String> config = readBody(request, CONFIG);
             
             if (config == null || config.isEmpty()) {
                 return errorResponse(response, 400, "Configuration cannot be empty");
             }
 
             // Update configuration
-            pluginService.updatePluginConfig(pluginName, config);
+            PluginService.ConfigSnapshot updated = applyConfigPatch(request, pluginName, config);
+            response.header("ETag", configEtag(request, updated.getVersion()));
             
             Map<String, String> successResponse = new HashMap<>();
             successResponse.put("status", "success");
             successResponse.put("message", "Configuration updated");
             
-            return successResponse(response, 200, successResponse);
+            return successResponse(request, response, 200, successResponse, CONFIG);
+        } catch (RequestBodyException e) {
+            return errorResponse(response, e.getStatus(), e.getMessage());
+        } catch (PluginService.ConfigVersionConflictException e) {
+            return configConflictResponse(request, response, e);
         } catch (PluginService.PluginServiceException e) {
-            return handleServiceException(response, e);
+            return handlePluginServiceException(response, pluginName, e);
         } catch (Exception e) {
             return handleUnexpectedException(response, e, "updating plugin configuration");
         }
     }
 
     /**
-     * Validates that a plugin exists, returns error response if not.
+     * Applies a JSON Merge Patch to plugin configuration.
+     *
+     * PATCH /api/plugins/{name}/config
+     *
+     * Request Body: { "key1": "newValue1", "key2": null }, where null removes the key
+     * Response: the updated configuration, with its version as ETag
+     *
+     * Honors If-Match and answers conflicts like PUT.
      */
-    private boolean validatePluginExists(String pluginName, Response response) {
-        PluginService.PluginInfo info = pluginService.getPluginInfo(pluginName);
-        if (info == null) {
-            Set<String> availablePlugins = pluginService.listPlugins();
-            String message = buildPluginNotFoundMessage(pluginName, availablePlugins);
-            errorResponse(response, 404, message);
-            return false;
+    private Object patchPluginConfig(HttpRequest request, HttpResponse response) {
+        String pluginName = request.pathParam("name");
+        try {
+            Map<String, String> patch = readBody(request, CONFIG);
+            if (patch == null) {
+                return errorResponse(response, 400, "Merge patch must be a JSON object");
+            }
+            PluginService.ConfigSnapshot updated = applyConfigPatch(request, pluginName, patch);
+            response.header("ETag", configEtag(request, updated.getVersion()));
+            return successResponse(request, response, 200, updated.getConfig(), CONFIG);
+        } catch (RequestBodyException e) {
+            return errorResponse(response, e.getStatus(), e.getMessage());
+        } catch (PluginService.ConfigVersionConflictException e) {
+            return configConflictResponse(request, response, e);
+        } catch (PluginService.PluginServiceException e) {
+            return handlePluginServiceException(response, pluginName, e);
+        } catch (Exception e) {
+            return handleUnexpectedException(response, e, "patching plugin configuration");
+        }
+    }
+
+    /**
+     * Computes the delta of a merge patch against the current config and applies it.
+     *
+     * <p>With If-Match, the update applies only at that version. Without it, the
+     * delta is still applied against the version it was computed from, and is
+     * recomputed if another update got there first, up to
+     * {@link #MAX_CONFIG_UPDATE_ATTEMPTS} times.
+     */
+    private PluginService.ConfigSnapshot applyConfigPatch(HttpRequest request, String pluginName,
+            Map<String, String> patch) throws PluginService.PluginServiceException {
+        long expectedVersion = expectedConfigVersion(request.header(IF_MATCH));
+        for (int attempt = 1; ; attempt++) {
+            PluginService.ConfigSnapshot current = pluginService.getPluginConfigSnapshot(pluginName);
+            if (current == null) {
+                throw new PluginService.PluginNotFoundException(pluginName);
+            }
+            long version = expectedVersion != PluginService.ConfigSnapshot.ANY_VERSION
+                    ? expectedVersion : current.getVersion();
+            PluginService.ConfigDelta delta = PluginService.ConfigDelta.mergePatch(current.getConfig(), patch);
+            if (delta.isEmpty()) {
+                if (version != current.getVersion()) {
+                    throw new PluginService.ConfigVersionConflictException(pluginName, current.getVersion());
+                }
+                return current;
+            }
+            try {
+                return pluginService.updatePluginConfig(pluginName, delta, version);
+            } catch (PluginService.ConfigVersionConflictException e) {
+                if (expectedVersion != PluginService.ConfigSnapshot.ANY_VERSION
+                        || attempt == MAX_CONFIG_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers a config version conflict: 412 if the client's If-Match failed, 409 if retries ran out without one.
+     */
+    private String configConflictResponse(HttpRequest request, HttpResponse response,
+            PluginService.ConfigVersionConflictException e) {
+        return errorResponse(response, request.header(IF_MATCH) != null ? 412 : 409, e.getMessage());
+    }
+
+    /**
+     * Returns the strong ETag of a config version in the negotiated format.
+     */
+    private String configEtag(HttpRequest request, long version) {
+        WireFormat format = formats.negotiate(request.header(ACCEPT));
+        return CONFIG_ETAG_PREFIX + version + (format == WireFormat.JSON ? "" : "-" + format.getToken()) + "\"";
+    }
+
+    /**
+     * Returns the config version named by an If-Match header.
+     *
+     * <p>Only the first tag is used; all formats of a version match it. A missing
+     * header or {@code *} matches any version, and a tag that is not a config
+     * tag (including any weak tag) matches none.
+     */
+    private static long expectedConfigVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return PluginService.ConfigSnapshot.ANY_VERSION;
+        }
+        String tag = ifMatch.split(",", 2)[0].trim();
+        if (!tag.startsWith(CONFIG_ETAG_PREFIX)) {
+            return Long.MIN_VALUE;
+        }
+        int end = CONFIG_ETAG_PREFIX.length();
+        while (end < tag.length() && Character.isDigit(tag.charAt(end))) {
+            end++;
+        }
+        try {
+            return Long.parseLong(tag.substring(CONFIG_ETAG_PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
         }
-        return true;
     }
 
     /**
@@ -343,7 +1063,7 @@ public class PluginController {
     /**
      * Executes a handler with error handling.
      */
-    private String execute(Handler handler, Response response) {
+    private Object execute(Handler handler, HttpResponse response) {
         try {
             return handler.execute();
         } catch (PluginService.PluginServiceException e) {
@@ -353,29 +1073,71 @@ public class PluginController {
         }
     }
 
+    /**
+     * Executes a handler that operates on a single plugin, without checking up front that it exists.
+     *
+     * <p>The service is expected to report a missing plugin itself, so the
+     * registry is hit once per request; see {@link #handlePluginServiceException}.
+     */
+    private Object executeForPlugin(String pluginName, Handler handler, HttpResponse response) {
+        try {
+            return handler.execute();
+        } catch (PluginService.PluginServiceException e) {
+            return handlePluginServiceException(response, pluginName, e);
+        } catch (Exception e) {
+            return handleUnexpectedException(response, e, "processing request");
+        }
+    }
+
+    /**
+     * Handles a PluginServiceException from a single-plugin operation, mapping a missing plugin to 404.
+     *
+     * <p>Services that do not throw {@link PluginService.PluginNotFoundException} are
+     * still supported: only on this failure path is the plugin looked up again to
+     * tell "not installed" apart from other failures.
+     */
+    private String handlePluginServiceException(HttpResponse response, String pluginName,
+            PluginService.PluginServiceException e) {
+        if (e instanceof PluginService.PluginNotFoundException || pluginService.getPluginInfo(pluginName) == null) {
+            return errorResponse(response, 404, buildPluginNotFoundMessage(pluginName, pluginService.listPlugins()));
+        }
+        return handleServiceException(response, e);
+    }
+
     /**
      * Functional interface for request handlers.
      */
     @FunctionalInterface
     private interface Handler {
 
-        String execute() throws Exception;
+        Object execute() throws Exception;
+    }
+
+    /**
+     * Produces the DTO for a cacheable response, or null if there is nothing to render.
+     */
+    @FunctionalInterface
+    private interface Renderer {
+
+        Object render() throws Exception;
     }
 
     /**
      * Handles PluginServiceException.
      */
-    private String handleServiceException(Response response, PluginService.PluginServiceException e) {
+    private String handleServiceException(HttpResponse response, PluginService.PluginServiceException e) {
         response.status(400);
+        response.type("application/json");
         return JsonUtils.errorResponse(getRootCauseMessage(e));
     }
 
     /**
      * Handles unexpected exceptions.
      */
-    private String handleUnexpectedException(Response response, Exception e, String context) {
+    private String handleUnexpectedException(HttpResponse response, Exception e, String context) {
         logger.error("Unexpected error {}", context, e);
         response.status(500);
+        response.type("application/json");
         return JsonUtils.errorResponse("Internal server error");
     }
 
@@ -390,18 +1152,219 @@ public class PluginController {
     }
 
     /**
-     * Creates a success JSON response.
+     * Creates a success response in the format the client asked for.
      */
-    private String successResponse(Response response, int status, Object data) throws Exception {
+    private Object successResponse(HttpRequest request, HttpResponse response, int status, Object data,
+            JavaType type) throws Exception {
         response.status(status);
-        return objectMapper.writeValueAsString(data);
+        WireFormat format = responseFormat(request, response);
+        ObjectWriter writer = formats.writer(format, type);
+        return format == WireFormat.JSON ? writer.writeValueAsString(data) : writer.writeValueAsBytes(data);
+    }
+
+    /**
+     * Picks the response format from {@code Accept} and sets the content type; errors stay JSON.
+     */
+    private WireFormat responseFormat(HttpRequest request, HttpResponse response) {
+        response.addHeader("Vary", ACCEPT);
+        WireFormat format = formats.negotiate(request.header(ACCEPT));
+        if (format != WireFormat.JSON) {
+            response.type(format.getMediaType());
+        }
+        return format;
+    }
+
+    /**
+     * Parses a request body from the input stream, in the format named by its {@code Content-Type}
+     * (JSON by default).
+     *
+     * @throws RequestBodyException if the body is too large, empty or malformed
+     */
+    private <T> T readBody(HttpRequest request, JavaType type) throws IOException {
+        return bodyReader.read(request, formats.reader(formats.forContentType(request.contentType()), type));
+    }
+
+    /**
+     * Answers a conditional GET with 304 when the client's {@code If-None-Match}
+     * carries the current tag, otherwise runs the handler and tags a 200 response.
+     *
+     * <p>Tags are strong and derived from the response cache version, which every
+     * change event bumps, so a match skips the service entirely. Without change
+     * events the version never moves and no tags are issued.
+     */
+    private Object conditionalResponse(HttpRequest request, HttpResponse response, Handler handler) throws Exception {
+        if (!responseCache.isEnabled()) {
+            return handler.execute();
+        }
+        // Read the version before the handler so a concurrent change can only make the tag stale, never wrong.
+        // Each format and coding is a different representation, so it gets its own strong tag.
+        WireFormat format = formats.negotiate(request.header(ACCEPT));
+        ContentEncoding encoding = compressor.negotiate(request.header(ACCEPT_ENCODING));
+        String etag = etagPrefix + responseCache.getVersion()
+                + (format == WireFormat.JSON ? "" : "-" + format.getToken())
+                + (encoding == ContentEncoding.IDENTITY ? "" : "-" + encoding.getToken()) + "\"";
+        if (etagMatches(request.header(IF_NONE_MATCH), etag)) {
+            responseCache.recordNotModified();
+            response.status(304);
+            response.header("ETag", etag);
+            return "";
+        }
+        // Set before the handler, which may commit the response when it writes a compressed body
+        response.header("ETag", etag);
+        Object body = handler.execute();
+        if (response.status() != 200) {
+            response.header("ETag", null);
+        }
+        return body;
+    }
+
+    /**
+     * Returns true if an {@code If-None-Match} header lists the tag, using weak comparison.
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serves a 200 response from the response cache, rendering and caching the body on a miss.
+     *
+     * <p>On a hit the service is not called and nothing is serialized. Compressed
+     * variants are cached next to the plain body, so each is compressed once per change.
+     *
+     * @return the body, or null if the renderer had nothing to render
+     */
+    private Object cachedResponse(HttpRequest request, HttpResponse response, String key, JavaType type,
+            Renderer renderer) throws Exception {
+        WireFormat format = responseFormat(request, response);
+        String formatKey = key + '\0' + format.getToken();
+        // Read the version first so that a change made while rendering discards this body
+        long version = responseCache.getVersion();
+        byte[] body = responseCache.get(formatKey);
+        if (body == null) {
+            Object data = renderer.render();
+            if (data == null) {
+                return null;
+            }
+            body = formats.writer(format, type).writeValueAsBytes(data);
+            responseCache.put(formatKey, version, body);
+        }
+        response.status(200);
+        ContentEncoding encoding = negotiateEncoding(request, response);
+        if (!compressor.shouldCompress(encoding, body.length)) {
+            return body;
+        }
+        String encodedKey = formatKey + '\0' + encoding.getToken();
+        byte[] encoded = responseCache.get(encodedKey);
+        if (encoded == null) {
+            encoded = compressor.compress(body, encoding);
+            responseCache.put(encodedKey, version, encoded);
+        }
+        return writeEncoded(response, encoded, encoding);
+    }
+
+    /**
+     * Sends a 200 response in the client's format, compressed if the client accepts it and the body
+     * is large enough.
+     */
+    private Object sendBody(HttpRequest request, HttpResponse response, Object data, JavaType type) throws IOException {
+        response.status(200);
+        byte[] body = formats.writer(responseFormat(request, response), type).writeValueAsBytes(data);
+        ContentEncoding encoding = negotiateEncoding(request, response);
+        if (!compressor.shouldCompress(encoding, body.length)) {
+            return body;
+        }
+        return writeEncoded(response, compressor.compress(body, encoding), encoding);
+    }
+
+    /**
+     * Picks the response coding and marks the response as varying by {@code Accept-Encoding}.
+     */
+    private ContentEncoding negotiateEncoding(HttpRequest request, HttpResponse response) {
+        response.addHeader("Vary", ACCEPT_ENCODING);
+        return compressor.negotiate(request.header(ACCEPT_ENCODING));
+    }
+
+    /**
+     * Writes an encoded body and commits the response.
+     *
+     * <p>Spark's own gzip support would compress the body again once it sees
+     * {@code Content-Encoding: gzip}, so the body is written here and Spark
+     * skips serialization of the committed response.
+     */
+    private String writeEncoded(HttpResponse response, byte[] encoded, ContentEncoding encoding) throws IOException {
+        response.header(CONTENT_ENCODING, encoding.getToken());
+        response.send(encoded);
+        return "";
+    }
+
+    /**
+     * Converts a listing to DTOs.
+     */
+    private static <T> List<?> toDTOs(List<T> items, Function<T, ?> mapper) {
+        return items.stream().map(mapper).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a 200 JSON array response, streaming it when the listing is large.
+     */
+    private <T> Object listResponse(HttpRequest request, HttpResponse response, List<T> items, Function<T, ?> mapper,
+            JavaType listType) throws Exception {
+        if (items.size() < STREAMING_THRESHOLD) {
+            return sendBody(request, response, toDTOs(items, mapper), listType);
+        }
+        return streamResponse(request, response, items, mapper, listType.getContentType());
     }
 
     /**
-     * Creates an error JSON response.
+     * Writes a JSON array directly to the response output stream, one item at a time.
+     *
+     * <p>Items are converted and serialized as they are written, so the full
+     * response is never held in memory; when the client accepts it, the stream
+     * is compressed on the fly. The response is committed when this returns,
+     * which makes the engine skip its own body serialization.
      */
-    private String errorResponse(Response response, int status, String message) {
+    private <T> String streamResponse(HttpRequest request, HttpResponse response, Iterable<T> items,
+            Function<T, ?> mapper, JavaType itemType) throws IOException {
+        response.status(200);
+        WireFormat format = responseFormat(request, response);
+        ContentEncoding encoding = negotiateEncoding(request, response);
+        if (encoding != ContentEncoding.IDENTITY) {
+            response.header(CONTENT_ENCODING, encoding.getToken());
+        }
+        OutputStream out = response.outputStream();
+        if (encoding != ContentEncoding.IDENTITY) {
+            out = compressor.compressingStream(out, encoding);
+        }
+        ObjectWriter itemWriter = formats.writer(format, itemType);
+        try (JsonGenerator generator = formats.mapper(format).getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (T item : items) {
+                itemWriter.writeValue(generator, mapper.apply(item));
+            }
+            generator.writeEndArray();
+        }
+        return "";
+    }
+
+    /**
+     * Creates an error JSON response. The body is always JSON, so this resets a Content-Type already set for a
+     * negotiated CBOR or Smile body.
+     */
+    private String errorResponse(HttpResponse response, int status, String message) {
         response.status(status);
+        response.type("application/json");
         return JsonUtils.errorResponse(message);
     }
 
@@ -413,14 +1376,45 @@ public class PluginController {
     }
 
     /**
-     * Converts plugin name to PluginInfoDTO (with fallback for missing info).
+     * Converts a page of the plugin index to PluginPageDTO.
+     */
+    private PluginPageDTO toPluginPageDTO(PluginIndex.Page page) {
+        List<PluginInfoDTO> plugins = page.getPlugins().stream()
+                .map(this::toPluginInfoDTO)
+                .collect(Collectors.toList());
+        return new PluginPageDTO(plugins, page.getNextCursor());
+    }
+
+    /**
+     * Converts LifecycleOperation to OperationDTO.
+     */
+    private OperationDTO toOperationDTO(LifecycleOperation operation) {
+        LifecycleOperation.Status status = operation.getStatus();
+        PluginService.PluginInfo result = operation.getResult();
+        return new OperationDTO(operation.getId(), operation.getType().name(), operation.getPluginName(),
+                status.name(), operation.getSubmittedAt(), status.isDone() ? operation.getCompletedAt() : null,
+                result != null ? toPluginInfoDTO(result) : null, operation.getError());
+    }
+
+    /**
+     * Converts the outcome of one plugin in a bulk operation to BulkOperationResultDTO.
      */
-    private PluginInfoDTO toPluginInfoDTO(String pluginName) {
-        PluginService.PluginInfo info = pluginService.getPluginInfo(pluginName);
-        if (info != null) {
-            return toPluginInfoDTO(info);
+    private BulkOperationResultDTO toBulkResultDTO(String pluginName, Object result, Throwable failure) {
+        if (failure != null) {
+            return new BulkOperationResultDTO(pluginName, LifecycleOperation.Status.FAILED.name(), null,
+                    LifecycleOperation.failureMessage(failure));
         }
-        return new PluginInfoDTO(pluginName, "unknown", "UNKNOWN", null);
+        PluginInfoDTO plugin = result instanceof PluginService.PluginInfo
+                ? toPluginInfoDTO((PluginService.PluginInfo) result) : null;
+        return new BulkOperationResultDTO(pluginName, LifecycleOperation.Status.SUCCEEDED.name(), plugin, null);
+    }
+
+    /**
+     * Converts PluginDescriptor to PluginDescriptorDTO.
+     */
+    private PluginDescriptorDTO toPluginDescriptorDTO(PluginService.PluginDescriptor descriptor) {
+        return new PluginDescriptorDTO(descriptor.getName(), descriptor.getJarPath(), descriptor.getClassName(),
+                descriptor.getSize());
     }
 }
 
@@ -1,8 +1,20 @@
 package com.pdbp.controller;
 
+import com.pdbp.controller.metrics.OpenMetricsWriter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Service interface for plugin operations.
@@ -31,6 +43,47 @@ public interface PluginService {
      */
     PluginInfo getPluginInfo(String pluginName);
 
+    /**
+     * Gets plugin information for several plugins in one call.
+     *
+     * <p>The default implementation falls back to one {@link #getPluginInfo(String)}
+     * lookup per name. Implementations backed by a registry should override this
+     * to resolve all names in a single pass.
+     *
+     * @param pluginNames the plugin names
+     * @return plugin info keyed by name, in iteration order of {@code pluginNames};
+     *         names that are not installed are omitted
+     */
+    default Map<String, PluginInfo> getPluginInfos(Collection<String> pluginNames) {
+        Map<String, PluginInfo> infos = new LinkedHashMap<>();
+        for (String pluginName : pluginNames) {
+            PluginInfo info = getPluginInfo(pluginName);
+            if (info != null) {
+                infos.put(pluginName, info);
+            }
+        }
+        return infos;
+    }
+
+    /**
+     * Lists information for all installed plugins.
+     *
+     * <p>A listed plugin without info is reported with version {@code unknown}
+     * and state {@code UNKNOWN}, as the controller always has.
+     *
+     * @return plugin info for every installed plugin
+     */
+    default List<PluginInfo> listPluginInfos() {
+        Set<String> pluginNames = listPlugins();
+        Map<String, PluginInfo> infos = getPluginInfos(pluginNames);
+        List<PluginInfo> list = new ArrayList<>(pluginNames.size());
+        for (String pluginName : pluginNames) {
+            PluginInfo info = infos.get(pluginName);
+            list.add(info != null ? info : PluginInfo.unknown(pluginName));
+        }
+        return list;
+    }
+
     /**
      * Discovers plugins in the plugin directory.
      *
@@ -54,6 +107,7 @@ public interface PluginService {
      *
      * @param pluginName the plugin name
      * @return updated plugin info
+     * @throws PluginNotFoundException if the plugin is not installed
      * @throws PluginServiceException if startup fails
      */
     PluginInfo startPlugin(String pluginName) throws PluginServiceException;
@@ -63,6 +117,7 @@ public interface PluginService {
      *
      * @param pluginName the plugin name
      * @return updated plugin info
+     * @throws PluginNotFoundException if the plugin is not installed
      * @throws PluginServiceException if shutdown fails
      */
     PluginInfo stopPlugin(String pluginName) throws PluginServiceException;
@@ -71,10 +126,121 @@ public interface PluginService {
      * Unloads a plugin.
      *
      * @param pluginName the plugin name
+     * @throws PluginNotFoundException if the plugin is not installed
      * @throws PluginServiceException if unloading fails
      */
     void unloadPlugin(String pluginName) throws PluginServiceException;
 
+    /**
+     * Installs a plugin asynchronously.
+     *
+     * <p>The default implementation runs {@link #installPlugin(String, String, String)}
+     * on the executor. Failures complete the future with a
+     * {@link PluginServiceException} wrapped in a
+     * {@link java.util.concurrent.CompletionException}.
+     *
+     * @param pluginName the plugin name
+     * @param jarPath    path to the plugin JAR
+     * @param className  fully qualified class name
+     * @param executor   executor to run the installation on
+     * @return future completed with the plugin info after installation
+     */
+    default CompletableFuture<PluginInfo> installPluginAsync(String pluginName, String jarPath, String className,
+            Executor executor) {
+        return PluginServiceFutures.supply(() -> installPlugin(pluginName, jarPath, className), executor);
+    }
+
+    /**
+     * Starts a plugin asynchronously.
+     *
+     * @param pluginName the plugin name
+     * @param executor   executor to run the startup on
+     * @return future completed with the updated plugin info
+     * @see #installPluginAsync(String, String, String, Executor)
+     */
+    default CompletableFuture<PluginInfo> startPluginAsync(String pluginName, Executor executor) {
+        return PluginServiceFutures.supply(() -> startPlugin(pluginName), executor);
+    }
+
+    /**
+     * Stops a plugin asynchronously.
+     *
+     * @param pluginName the plugin name
+     * @param executor   executor to run the shutdown on
+     * @return future completed with the updated plugin info
+     * @see #installPluginAsync(String, String, String, Executor)
+     */
+    default CompletableFuture<PluginInfo> stopPluginAsync(String pluginName, Executor executor) {
+        return PluginServiceFutures.supply(() -> stopPlugin(pluginName), executor);
+    }
+
+    /**
+     * Unloads a plugin asynchronously.
+     *
+     * @param pluginName the plugin name
+     * @param executor   executor to run the unload on
+     * @return future completed once the plugin is unloaded
+     * @see #installPluginAsync(String, String, String, Executor)
+     */
+    default CompletableFuture<Void> unloadPluginAsync(String pluginName, Executor executor) {
+        return PluginServiceFutures.supply(() -> {
+            unloadPlugin(pluginName);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Starts several plugins.
+     *
+     * <p>The default implementation calls {@link #startPluginAsync(String, Executor)}
+     * once per name; the executor decides how many run in parallel.
+     *
+     * @param pluginNames the plugin names
+     * @param executor    executor to run the startups on
+     * @return future per plugin name, in iteration order of {@code pluginNames}
+     */
+    default Map<String, CompletableFuture<PluginInfo>> startPlugins(Collection<String> pluginNames,
+            Executor executor) {
+        Map<String, CompletableFuture<PluginInfo>> results = new LinkedHashMap<>();
+        for (String pluginName : pluginNames) {
+            results.put(pluginName, startPluginAsync(pluginName, executor));
+        }
+        return results;
+    }
+
+    /**
+     * Stops several plugins.
+     *
+     * @param pluginNames the plugin names
+     * @param executor    executor to run the shutdowns on
+     * @return future per plugin name, in iteration order of {@code pluginNames}
+     * @see #startPlugins(Collection, Executor)
+     */
+    default Map<String, CompletableFuture<PluginInfo>> stopPlugins(Collection<String> pluginNames,
+            Executor executor) {
+        Map<String, CompletableFuture<PluginInfo>> results = new LinkedHashMap<>();
+        for (String pluginName : pluginNames) {
+            results.put(pluginName, stopPluginAsync(pluginName, executor));
+        }
+        return results;
+    }
+
+    /**
+     * Unloads several plugins.
+     *
+     * @param pluginNames the plugin names
+     * @param executor    executor to run the unloads on
+     * @return future per plugin name, in iteration order of {@code pluginNames}
+     * @see #startPlugins(Collection, Executor)
+     */
+    default Map<String, CompletableFuture<Void>> unloadPlugins(Collection<String> pluginNames, Executor executor) {
+        Map<String, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        for (String pluginName : pluginNames) {
+            results.put(pluginName, unloadPluginAsync(pluginName, executor));
+        }
+        return results;
+    }
+
     /**
      * Gets platform metrics.
      *
@@ -82,6 +248,21 @@ public interface PluginService {
      */
     Map<String, Object> getMetrics();
 
+    /**
+     * Writes platform metrics for the OpenMetrics {@code /metrics} endpoint.
+     *
+     * <p>The default implementation exports every numeric entry of
+     * {@link #getMetrics()} as a {@code pdbp_service_*} gauge, a namespace apart
+     * from the controller's own {@code pdbp_api_*} families. Implementations that
+     * keep counters of their own should override this and write them
+     * directly, skipping the intermediate map.
+     *
+     * @param writer the exposition writer
+     */
+    default void writeMetrics(OpenMetricsWriter writer) {
+        writer.gauges("pdbp_service", getMetrics());
+    }
+
     /**
      * Records an API request for metrics tracking.
      *
@@ -110,10 +291,264 @@ public interface PluginService {
      *
      * @param pluginName the plugin name
      * @param config    configuration map to update
+     * @throws PluginNotFoundException if the plugin is not installed
      * @throws PluginServiceException if operation fails
      */
     void updatePluginConfig(String pluginName, Map<String, String> config) throws PluginServiceException;
 
+    /**
+     * Gets plugin configuration together with its version.
+     *
+     * <p>The default implementation derives the version from the configuration's
+     * content via {@link ConfigSnapshot#contentVersion(Map)}. Implementations that
+     * keep a version counter should override this together with
+     * {@link #updatePluginConfig(String, ConfigDelta, long)}.
+     *
+     * @param pluginName the plugin name
+     * @return configuration and version, or null if plugin not found
+     * @throws PluginServiceException if operation fails
+     */
+    default ConfigSnapshot getPluginConfigSnapshot(String pluginName) throws PluginServiceException {
+        Map<String, String> config = getPluginConfig(pluginName);
+        return config != null ? new ConfigSnapshot(config, ConfigSnapshot.contentVersion(config)) : null;
+    }
+
+    /**
+     * Applies only the changed and removed keys of a configuration, if it is still at the expected version.
+     *
+     * <p>The default implementation checks the version against
+     * {@link #getPluginConfigSnapshot(String)} and passes the changed keys to
+     * {@link #updatePluginConfig(String, Map)}. The check and the update are not
+     * atomic, and removing keys is not supported; implementations should override
+     * this to apply the delta under their own lock.
+     *
+     * @param pluginName      the plugin name
+     * @param delta           keys to set and keys to remove
+     * @param expectedVersion version the delta was computed against, or {@link ConfigSnapshot#ANY_VERSION}
+     * @return the configuration after the update
+     * @throws ConfigVersionConflictException if the configuration is at another version
+     * @throws PluginNotFoundException if the plugin is not installed
+     * @throws PluginServiceException if operation fails
+     */
+    default ConfigSnapshot updatePluginConfig(String pluginName, ConfigDelta delta, long expectedVersion)
+            throws PluginServiceException {
+        ConfigSnapshot current = getPluginConfigSnapshot(pluginName);
+        if (current == null) {
+            throw new PluginNotFoundException(pluginName);
+        }
+        if (expectedVersion != ConfigSnapshot.ANY_VERSION && expectedVersion != current.getVersion()) {
+            throw new ConfigVersionConflictException(pluginName, current.getVersion());
+        }
+        if (!delta.getRemoved().isEmpty()) {
+            throw new PluginServiceException("Removing configuration keys is not supported");
+        }
+        if (delta.isEmpty()) {
+            return current;
+        }
+        updatePluginConfig(pluginName, delta.getChanged());
+        Map<String, String> updated = delta.applyTo(current.getConfig());
+        return new ConfigSnapshot(updated, ConfigSnapshot.contentVersion(updated));
+    }
+
+    /**
+     * Registers a listener for plugin changes.
+     *
+     * <p>Implementations that support change events call the listener after every
+     * install, start, stop, unload and configuration update, and whenever the
+     * result of {@link #discoverPlugins()} changes, whether or not the change was
+     * made through the controller; {@link PluginChangeNotifier} does the bookkeeping.
+     * The controller caches read responses only while the service publishes events.
+     *
+     * <p>The default implementation does not publish events and returns false.
+     *
+     * @param listener the listener
+     * @return true if the listener will be notified of changes
+     */
+    default boolean addChangeListener(PluginChangeListener listener) {
+        return false;
+    }
+
+    /**
+     * Removes a listener registered with {@link #addChangeListener(PluginChangeListener)}.
+     *
+     * @param listener the listener
+     */
+    default void removeChangeListener(PluginChangeListener listener) {
+        // No events are published by default
+    }
+
+    /**
+     * Receives plugin change events.
+     *
+     * <p>Listeners are called synchronously on the thread that made the change
+     * and must not block.
+     */
+    @FunctionalInterface
+    interface PluginChangeListener {
+
+        /**
+         * Called after a change has been applied.
+         *
+         * @param event the change
+         */
+        void onChange(PluginChangeEvent event);
+    }
+
+    /**
+     * Plugin change event model.
+     */
+    class PluginChangeEvent {
+
+        /**
+         * Kind of change.
+         */
+        public enum Type {
+            INSTALLED, STARTED, STOPPED, UNLOADED, CONFIG_UPDATED, DISCOVERY_CHANGED
+        }
+
+        private final Type type;
+        private final String pluginName;
+
+        /**
+         * Creates an event.
+         *
+         * @param type       kind of change
+         * @param pluginName the plugin that changed, or null for {@link Type#DISCOVERY_CHANGED}
+         */
+        public PluginChangeEvent(Type type, String pluginName) {
+            this.type = type;
+            this.pluginName = pluginName;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getPluginName() {
+            return pluginName;
+        }
+    }
+
+    /**
+     * Plugin configuration at one version.
+     */
+    class ConfigSnapshot {
+
+        /**
+         * Expected version that matches any version.
+         */
+        public static final long ANY_VERSION = -1;
+
+        private final Map<String, String> config;
+        private final long version;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param config  the configuration; not copied, so it must not be modified afterwards
+         * @param version its version, never negative
+         */
+        public ConfigSnapshot(Map<String, String> config, long version) {
+            this.config = Collections.unmodifiableMap(config);
+            this.version = version;
+        }
+
+        /**
+         * Returns a version derived from the configuration's content, for services without a version counter.
+         *
+         * <p>Equal configurations get equal versions; the value is a 63-bit FNV-1a
+         * hash of the entries in key order.
+         */
+        public static long contentVersion(Map<String, String> config) {
+            long hash = 0xcbf29ce484222325L;
+            for (Map.Entry<String, String> entry : new TreeMap<>(config).entrySet()) {
+                hash = fnv(hash, entry.getKey());
+                hash = fnv(hash, entry.getValue());
+            }
+            return hash & Long.MAX_VALUE;
+        }
+
+        private static long fnv(long hash, String value) {
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            for (byte b : bytes) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            // Separator, and a marker that tells null apart from ""
+            return (hash ^ (value != null ? 0x100 : 0x200)) * 0x100000001b3L;
+        }
+
+        public Map<String, String> getConfig() {
+            return config;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * Change to a plugin configuration: keys set to new values and keys removed.
+     */
+    class ConfigDelta {
+
+        private final Map<String, String> changed;
+        private final Set<String> removed;
+
+        public ConfigDelta(Map<String, String> changed, Set<String> removed) {
+            this.changed = Collections.unmodifiableMap(changed);
+            this.removed = Collections.unmodifiableSet(removed);
+        }
+
+        /**
+         * Computes the delta of a JSON Merge Patch (RFC 7396) against the current configuration.
+         *
+         * <p>A null value removes its key; other values set it. Keys that already
+         * hold the given value, and removals of absent keys, are left out.
+         *
+         * @param current the current configuration
+         * @param patch   the patch
+         * @return the delta
+         */
+        public static ConfigDelta mergePatch(Map<String, String> current, Map<String, String> patch) {
+            Map<String, String> changed = new LinkedHashMap<>();
+            Set<String> removed = new LinkedHashSet<>();
+            for (Map.Entry<String, String> entry : patch.entrySet()) {
+                String key = entry.getKey();
+                String value = entry.getValue();
+                if (value == null) {
+                    if (current.containsKey(key)) {
+                        removed.add(key);
+                    }
+                } else if (!value.equals(current.get(key))) {
+                    changed.put(key, value);
+                }
+            }
+            return new ConfigDelta(changed, removed);
+        }
+
+        /**
+         * Returns a copy of {@code config} with this delta applied.
+         */
+        public Map<String, String> applyTo(Map<String, String> config) {
+            Map<String, String> result = new HashMap<>(config);
+            result.putAll(changed);
+            result.keySet().removeAll(removed);
+            return result;
+        }
+
+        public Map<String, String> getChanged() {
+            return changed;
+        }
+
+        public Set<String> getRemoved() {
+            return removed;
+        }
+
+        public boolean isEmpty() {
+            return changed.isEmpty() && removed.isEmpty();
+        }
+    }
+
     /**
      * Plugin information model.
      */
@@ -123,12 +558,26 @@ public interface PluginService {
         private final String version;
         private final String state;
         private final String jarPath;
+        private final List<String> dependencies;
 
         public PluginInfo(String name, String version, String state, String jarPath) {
+            this(name, version, state, jarPath, Collections.<String>emptyList());
+        }
+
+        public PluginInfo(String name, String version, String state, String jarPath, List<String> dependencies) {
             this.name = name;
             this.version = version;
             this.state = state;
             this.jarPath = jarPath;
+            this.dependencies = dependencies != null ? Collections.unmodifiableList(new ArrayList<>(dependencies))
+                    : Collections.<String>emptyList();
+        }
+
+        /**
+         * Returns the placeholder listed for an installed plugin whose info is not available.
+         */
+        public static PluginInfo unknown(String name) {
+            return new PluginInfo(name, "unknown", "UNKNOWN", null);
         }
 
         public String getName() {
@@ -146,6 +595,13 @@ public interface PluginService {
         public String getJarPath() {
             return jarPath;
         }
+
+        /**
+         * Returns the names of the plugins that must be started before this one.
+         */
+        public List<String> getDependencies() {
+            return dependencies;
+        }
     }
 
     /**
@@ -157,12 +613,20 @@ public interface PluginService {
         private final String jarPath;
         private final String className;
         private final long size;
+        private final List<String> dependencies;
 
         public PluginDescriptor(String name, String jarPath, String className, long size) {
+            this(name, jarPath, className, size, Collections.<String>emptyList());
+        }
+
+        public PluginDescriptor(String name, String jarPath, String className, long size,
+                List<String> dependencies) {
             this.name = name;
             this.jarPath = jarPath;
             this.className = className;
             this.size = size;
+            this.dependencies = dependencies != null ? Collections.unmodifiableList(new ArrayList<>(dependencies))
+                    : Collections.<String>emptyList();
         }
 
         public String getName() {
@@ -180,6 +644,13 @@ public interface PluginService {
         public long getSize() {
             return size;
         }
+
+        /**
+         * Returns the names of the plugins this plugin declares as dependencies.
+         */
+        public List<String> getDependencies() {
+            return dependencies;
+        }
     }
 
     /**
@@ -197,5 +668,47 @@ public interface PluginService {
             super(message, cause);
         }
     }
+
+    /**
+     * Thrown by lifecycle and configuration operations when the plugin is not installed.
+     *
+     * <p>Lets callers skip an existence check before each operation: the
+     * controller maps this exception to 404 without a second lookup.
+     */
+    class PluginNotFoundException extends PluginServiceException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String pluginName;
+
+        public PluginNotFoundException(String pluginName) {
+            super("Plugin not found: " + pluginName);
+            this.pluginName = pluginName;
+        }
+
+        public String getPluginName() {
+            return pluginName;
+        }
+    }
+
+    /**
+     * Thrown by {@link #updatePluginConfig(String, ConfigDelta, long)} when the configuration
+     * is no longer at the expected version; the controller maps it to 412.
+     */
+    class ConfigVersionConflictException extends PluginServiceException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long currentVersion;
+
+        public ConfigVersionConflictException(String pluginName, long currentVersion) {
+            super("Configuration of " + pluginName + " has changed, current version is " + currentVersion);
+            this.currentVersion = currentVersion;
+        }
+
+        public long getCurrentVersion() {
+            return currentVersion;
+        }
+    }
 }
 
@@ -0,0 +1,45 @@
+package com.pdbp.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapts blocking {@link PluginService} calls to {@link CompletableFuture}s
+ * for the interface's default async methods.
+ *
+ * @author Saurabh Maurya
+ */
+final class PluginServiceFutures {
+
+    private PluginServiceFutures() {
+        // Utility class
+    }
+
+    /**
+     * A blocking service call.
+     */
+    @FunctionalInterface
+    interface ServiceCall<T> {
+
+        T call() throws PluginService.PluginServiceException;
+    }
+
+    /**
+     * Runs a service call on the executor.
+     *
+     * <p>A {@link PluginService.PluginServiceException} completes the future
+     * exceptionally, wrapped in a {@link CompletionException}.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects the call
+     */
+    static <T> CompletableFuture<T> supply(ServiceCall<T> call, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (PluginService.PluginServiceException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
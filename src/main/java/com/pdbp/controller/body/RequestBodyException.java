@@ -0,0 +1,30 @@
+package com.pdbp.controller.body;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request body is rejected: too large, empty or malformed.
+ *
+ * <p>Carries the HTTP status to answer with, so the controller can map it
+ * without inspecting the cause.
+ *
+ * @author Saurabh Maurya
+ */
+public class RequestBodyException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public RequestBodyException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Returns the HTTP status for this rejection: 400 or 413.
+     */
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,121 @@
+package com.pdbp.controller.body;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pdbp.controller.http.HttpRequest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses request bodies straight from the request input stream, with a size limit.
+ *
+ * <p>Spark's {@code request.body()} copies the whole payload into a byte array
+ * and then a String before Jackson sees it. This reader lets Jackson pull from
+ * {@link HttpRequest#body()}, the container's own stream, so a body is
+ * buffered only in the parser's own fixed-size buffer.
+ *
+ * <p>A declared {@code Content-Length} over the limit is rejected before any
+ * byte is read; a chunked body is counted as it is read and rejected as soon
+ * as it passes the limit. Because the stream is consumed, a body can be read
+ * only once per request.
+ *
+ * @author Saurabh Maurya
+ */
+public class RequestBodyReader {
+
+    private final long maxBytes;
+
+    /**
+     * Creates a reader.
+     *
+     * @param maxBytes largest accepted body, in bytes
+     */
+    public RequestBodyReader(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the largest accepted body, in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Reads and binds a request body.
+     *
+     * @param request the request
+     * @param reader  typed reader for the body's format
+     * @return the bound value
+     * @throws RequestBodyException if the body is too large (413), empty or malformed (400)
+     * @throws IOException          if reading from the client fails
+     */
+    public <T> T read(HttpRequest request, ObjectReader reader) throws IOException {
+        long length = request.contentLength();
+        if (length > maxBytes) {
+            throw tooLarge();
+        }
+        if (length == 0) {
+            throw new RequestBodyException(400, "Request body is empty");
+        }
+        try (InputStream in = new LimitedInputStream(request.body())) {
+            return reader.readValue(in);
+        } catch (JsonProcessingException e) {
+            if (e.getCause() instanceof RequestBodyException) {
+                throw (RequestBodyException) e.getCause();
+            }
+            throw new RequestBodyException(400, "Malformed request body: " + e.getOriginalMessage());
+        }
+    }
+
+    private RequestBodyException tooLarge() {
+        return new RequestBodyException(413, "Request body exceeds " + maxBytes + " bytes");
+    }
+
+    /**
+     * Fails once more than {@code maxBytes} have been read.
+     */
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining = maxBytes;
+
+        LimitedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consumed(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            // Ask for one byte past the limit so that an oversized body is detected, not truncated
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining + 1));
+            if (n > 0) {
+                consumed(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining + 1));
+            consumed(skipped);
+            return skipped;
+        }
+
+        private void consumed(long n) throws RequestBodyException {
+            remaining -= n;
+            if (remaining < 0) {
+                throw tooLarge();
+            }
+        }
+    }
+}
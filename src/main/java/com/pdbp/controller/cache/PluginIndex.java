@@ -0,0 +1,161 @@
+package com.pdbp.controller.cache;
+
+import com.pdbp.controller.PluginService;
+import com.pdbp.controller.PluginService.PluginChangeEvent;
+import com.pdbp.controller.PluginService.PluginChangeListener;
+import com.pdbp.controller.PluginService.PluginInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Name-ordered index of installed plugins for paginated listings.
+ *
+ * <p>The index is loaded from {@link PluginService#listPluginInfos()} on first
+ * use and then kept current from change events: an event only marks the plugin
+ * dirty, and dirty plugins are re-read in one bulk lookup before the next page
+ * is served. Listeners therefore never call back into the service, and a page
+ * costs O(page size + plugins changed since the last page). With a state filter,
+ * plugins in other states are skipped, so the cost also grows with how many
+ * of them lie between the cursor and the end of the page.
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginIndex implements PluginChangeListener {
+
+    private final PluginService pluginService;
+    private final ConcurrentSkipListMap<String, PluginInfo> plugins = new ConcurrentSkipListMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private boolean loaded; // Guarded by this
+
+    /**
+     * Creates an index; register it with {@link PluginService#addChangeListener} before first use.
+     *
+     * @param pluginService service the index mirrors
+     */
+    public PluginIndex(PluginService pluginService) {
+        this.pluginService = pluginService;
+    }
+
+    @Override
+    public void onChange(PluginChangeEvent event) {
+        if (event.getPluginName() != null && event.getType() != PluginChangeEvent.Type.CONFIG_UPDATED
+                && event.getType() != PluginChangeEvent.Type.DISCOVERY_CHANGED) {
+            dirty.add(event.getPluginName());
+        }
+    }
+
+    /**
+     * Returns one page of plugins ordered by name.
+     *
+     * @param after  exclusive name cursor, or null to start at the beginning
+     * @param limit  maximum number of plugins
+     * @param state  state to match, case-insensitively, or null for all states
+     * @param prefix name prefix to match, or null for all names
+     * @return the page
+     */
+    public Page page(String after, int limit, String state, String prefix) {
+        reconcile();
+        return page(plugins, after, limit, state, prefix);
+    }
+
+    /**
+     * Returns one page of a name-ordered map of plugins.
+     *
+     * @see #page(String, int, String, String)
+     */
+    public static Page page(NavigableMap<String, PluginInfo> plugins, String after, int limit, String state,
+            String prefix) {
+        NavigableMap<String, PluginInfo> range = plugins;
+        if (prefix != null && (after == null || after.compareTo(prefix) < 0)) {
+            range = range.tailMap(prefix, true);
+        } else if (after != null) {
+            range = range.tailMap(after, false);
+        }
+        List<PluginInfo> items = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, PluginInfo> entry : range.entrySet()) {
+            if (prefix != null && !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            PluginInfo info = entry.getValue();
+            if (state != null && !state.equalsIgnoreCase(info.getState())) {
+                continue;
+            }
+            if (items.size() == limit) {
+                // Another match exists, so the client needs a cursor
+                return new Page(items, items.get(items.size() - 1).getName());
+            }
+            items.add(info);
+        }
+        return new Page(items, null);
+    }
+
+    /**
+     * Loads the index on first use and re-reads plugins marked dirty by change events.
+     */
+    private synchronized void reconcile() {
+        if (!loaded) {
+            dirty.clear();
+            for (PluginInfo info : pluginService.listPluginInfos()) {
+                plugins.put(info.getName(), info);
+            }
+            loaded = true;
+            return;
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+        // Remove names before reading them, so an event arriving during the read marks them again
+        List<String> names = new ArrayList<>(dirty);
+        dirty.removeAll(names);
+        Map<String, PluginInfo> infos = pluginService.getPluginInfos(names);
+        Set<String> installed = null;
+        for (String name : names) {
+            PluginInfo info = infos.get(name);
+            if (info != null) {
+                plugins.put(name, info);
+                continue;
+            }
+            // Still listed without info: keep the placeholder listPluginInfos() reports
+            if (installed == null) {
+                installed = pluginService.listPlugins();
+            }
+            if (installed.contains(name)) {
+                plugins.put(name, PluginInfo.unknown(name));
+            } else {
+                plugins.remove(name);
+            }
+        }
+    }
+
+    /**
+     * One page of plugins.
+     */
+    public static final class Page {
+
+        private final List<PluginInfo> plugins;
+        private final String nextCursor;
+
+        private Page(List<PluginInfo> plugins, String nextCursor) {
+            this.plugins = Collections.unmodifiableList(plugins);
+            this.nextCursor = nextCursor;
+        }
+
+        public List<PluginInfo> getPlugins() {
+            return plugins;
+        }
+
+        /**
+         * Returns the cursor for the next page, or null if this is the last page.
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.pdbp.controller.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of pre-encoded response bodies for read-mostly endpoints.
+ *
+ * <p>Entries are keyed by route and arguments and tagged with the cache
+ * version they were rendered at. {@link #invalidate()} bumps the version, so
+ * an entry is served only if nothing changed since it was rendered, even when
+ * a change races with the rendering. The cache starts disabled and is enabled
+ * once the plugin service has agreed to publish change events.
+ *
+ * @author Saurabh Maurya
+ */
+public class ResponseCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private volatile boolean enabled;
+
+    /**
+     * Creates a disabled cache.
+     *
+     * @param maxEntries maximum number of cached bodies; further bodies are not cached until the next invalidation
+     */
+    public ResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Starts serving and storing entries.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current version; it changes on every invalidation.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the cached body for a key if it is still current.
+     *
+     * @param key route and arguments
+     * @return the UTF-8 body, or null on a miss or when the cache is disabled
+     */
+    public byte[] get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version.get()) {
+            hits.increment();
+            return entry.body;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores a body rendered at the given version. Bodies rendered before the
+     * latest invalidation are dropped.
+     *
+     * @param key     route and arguments
+     * @param version value of {@link #getVersion()} read before rendering
+     * @param body    the UTF-8 body
+     */
+    public void put(String key, long version, byte[] body) {
+        if (enabled && version == this.version.get() && entries.size() < maxEntries) {
+            entries.put(key, new Entry(version, body));
+        }
+    }
+
+    /**
+     * Counts a conditional request answered with 304 Not Modified.
+     */
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    /**
+     * Invalidates all entries.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Summarizes the cache for the metrics endpoint.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("version", version.get());
+        snapshot.put("entries", entries.size());
+        snapshot.put("hits", hits.sum());
+        snapshot.put("misses", misses.sum());
+        snapshot.put("notModified", notModified.sum());
+        return snapshot;
+    }
+
+    private static final class Entry {
+
+        private final long version;
+        private final byte[] body;
+
+        private Entry(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pdbp.controller.compression;
+
+/**
+ * Response content codings supported by {@link ResponseCompressor}.
+ *
+ * @author Saurabh Maurya
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the coding as written in {@code Accept-Encoding} and {@code Content-Encoding}.
+     */
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,266 @@
+package com.pdbp.controller.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Negotiates and applies gzip or deflate compression to response bodies.
+ *
+ * <p>{@link Deflater} instances hold native zlib state that is costly to set up,
+ * so they are pooled and reset between uses rather than created per response.
+ * Bodies below the size threshold are sent as is.
+ *
+ * @author Saurabh Maurya
+ */
+public class ResponseCompressor {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    /**
+     * Fixed gzip member header: magic, deflate method, no flags, no mtime, no extra flags, unknown OS.
+     */
+    private static final byte[] GZIP_HEADER = {
+        (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final int minSize;
+    private final int level;
+    private final BlockingQueue<Deflater> rawDeflaters;
+    private final BlockingQueue<Deflater> zlibDeflaters;
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    /**
+     * Creates a compressor.
+     *
+     * @param minSize  bodies shorter than this many bytes are not compressed
+     * @param level    deflate level, 1 (fastest) to 9 (smallest)
+     * @param poolSize number of idle deflaters kept per coding
+     */
+    public ResponseCompressor(int minSize, int level, int poolSize) {
+        this.minSize = minSize;
+        this.level = level;
+        this.rawDeflaters = new ArrayBlockingQueue<>(poolSize);
+        this.zlibDeflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Picks the coding to use for a request.
+     *
+     * <p>Honors quality values, including {@code q=0} exclusions and the {@code *}
+     * wildcard; gzip wins a tie with deflate.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header, or null
+     * @return the coding, {@link ContentEncoding#IDENTITY} if the client accepts neither
+     */
+    public ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return ContentEncoding.IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon >= 0 ? part.substring(0, semicolon) : part).trim();
+            double quality = semicolon >= 0 ? parseQuality(part.substring(semicolon + 1)) : 1;
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (coding.equalsIgnoreCase("deflate")) {
+                deflate = Math.max(deflate, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        gzip = gzip >= 0 ? gzip : wildcard;
+        deflate = deflate >= 0 ? deflate : wildcard;
+        if (gzip > 0 && gzip >= deflate) {
+            return ContentEncoding.GZIP;
+        }
+        return deflate > 0 ? ContentEncoding.DEFLATE : ContentEncoding.IDENTITY;
+    }
+
+    /**
+     * Returns true if a body of the given length should be compressed with the coding.
+     */
+    public boolean shouldCompress(ContentEncoding encoding, int length) {
+        return encoding != ContentEncoding.IDENTITY && length >= minSize;
+    }
+
+    /**
+     * Compresses a complete body.
+     *
+     * @param body     the body
+     * @param encoding {@link ContentEncoding#GZIP} or {@link ContentEncoding#DEFLATE}
+     * @return the encoded body
+     */
+    public byte[] compress(byte[] body, ContentEncoding encoding) {
+        boolean gzip = encoding == ContentEncoding.GZIP;
+        Deflater deflater = borrow(gzip);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            int headerSize = gzip ? GZIP_HEADER.length : 0;
+            byte[] out = new byte[headerSize + body.length / 2 + 64];
+            int length = headerSize;
+            if (gzip) {
+                System.arraycopy(GZIP_HEADER, 0, out, 0, headerSize);
+            }
+            while (!deflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            if (gzip) {
+                CRC32 crc = new CRC32();
+                crc.update(body, 0, body.length);
+                out = Arrays.copyOf(out, length + GZIP_TRAILER_SIZE);
+                writeIntLE(out, length, (int) crc.getValue());
+                writeIntLE(out, length + 4, body.length);
+                length += GZIP_TRAILER_SIZE;
+            } else {
+                out = Arrays.copyOf(out, length);
+            }
+            record(body.length, length);
+            return out;
+        } finally {
+            release(deflater, gzip);
+        }
+    }
+
+    /**
+     * Wraps a stream so that everything written to it is compressed.
+     *
+     * <p>Closing the returned stream finishes the encoding, closes {@code out}
+     * and returns the deflater to the pool.
+     *
+     * @param out      the destination
+     * @param encoding {@link ContentEncoding#GZIP} or {@link ContentEncoding#DEFLATE}
+     * @return the compressing stream
+     * @throws IOException if the gzip header cannot be written
+     */
+    public OutputStream compressingStream(OutputStream out, ContentEncoding encoding) throws IOException {
+        boolean gzip = encoding == ContentEncoding.GZIP;
+        return new CompressingOutputStream(out, borrow(gzip), gzip);
+    }
+
+    /**
+     * Summarizes compression work for the metrics endpoint; cache hits are not counted.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("responses", compressedResponses.sum());
+        snapshot.put("bytesIn", bytesIn.sum());
+        snapshot.put("bytesOut", bytesOut.sum());
+        return snapshot;
+    }
+
+    private Deflater borrow(boolean gzip) {
+        Deflater deflater = (gzip ? rawDeflaters : zlibDeflaters).poll();
+        // gzip wraps raw deflate data in its own header and trailer; HTTP deflate is the zlib format
+        return deflater != null ? deflater : new Deflater(level, gzip);
+    }
+
+    private void release(Deflater deflater, boolean gzip) {
+        deflater.reset();
+        if (!(gzip ? rawDeflaters : zlibDeflaters).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private void record(long in, long out) {
+        compressedResponses.increment();
+        bytesIn.add(in);
+        bytesOut.add(out);
+    }
+
+    private static double parseQuality(String params) {
+        for (String param : params.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static void writeIntLE(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+        buffer[offset + 2] = (byte) (value >> 16);
+        buffer[offset + 3] = (byte) (value >> 24);
+    }
+
+    /**
+     * Deflater stream over a pooled deflater, adding the gzip framing when needed.
+     */
+    private final class CompressingOutputStream extends DeflaterOutputStream {
+
+        private final boolean gzip;
+        private final CRC32 crc = new CRC32();
+        private long bytesWritten;
+        private boolean closed;
+
+        private CompressingOutputStream(OutputStream out, Deflater deflater, boolean gzip) throws IOException {
+            super(out, deflater, 8192);
+            this.gzip = gzip;
+            if (gzip) {
+                out.write(GZIP_HEADER);
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            super.write(buffer, offset, length);
+            if (gzip) {
+                crc.update(buffer, offset, length);
+            }
+            bytesWritten += length;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (def.finished()) {
+                return;
+            }
+            super.finish();
+            if (gzip) {
+                byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+                writeIntLE(trailer, 0, (int) crc.getValue());
+                writeIntLE(trailer, 4, (int) bytesWritten);
+                out.write(trailer);
+            }
+            record(bytesWritten, def.getBytesWritten() + (gzip ? GZIP_HEADER.length + GZIP_TRAILER_SIZE : 0));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                finish();
+                out.close();
+            } finally {
+                release(def, gzip);
+            }
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.pdbp.controller.config;
+
+import com.pdbp.controller.PluginService.ConfigDelta;
+import com.pdbp.controller.PluginService.ConfigSnapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of plugin configuration changes.
+ *
+ * <p>Every change is appended as one record: a full snapshot on install, a
+ * delta on update, or a removal on unload. Each record is framed by its
+ * length and a CRC-32 of its payload. Replay applies the records in order and
+ * stops at the first record that is incomplete or fails its checksum, which
+ * is how a write torn by a crash is dropped. The space after it is then
+ * cleared and reused.
+ *
+ * <p>Records are written into a memory-mapped region that grows by doubling,
+ * so an append is a memory copy. Records reach the OS page cache at once and
+ * survive a process crash; {@link #force()} also flushes them to the device.
+ * Once the journal has grown past its compaction threshold,
+ * {@link #compact(Map)} rewrites it as one snapshot per plugin into a
+ * temporary file and moves that over the journal atomically.
+ *
+ * <p>Used through {@link VersionedConfigStore}, which appends under its
+ * per-plugin lock so that records of one plugin are in version order.
+ *
+ * @author Saurabh Maurya
+ */
+public final class ConfigJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigJournal.class);
+
+    private static final int MAGIC = 0x50434A31; // "PCJ1"
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_SIZE = 8; // payload length and CRC
+    private static final int MIN_MAPPED_SIZE = 1 << 20;
+
+    private static final byte SNAPSHOT = 1;
+    private static final byte DELTA = 2;
+    private static final byte REMOVE = 3;
+
+    /**
+     * Default size past which the journal is compacted, unless it is mostly live snapshots.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+
+    private final Path file;
+    private final long compactionThreshold;
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int position = -1; // unknown until replayed
+    private long compactAt;
+    private ByteBuffer record = ByteBuffer.allocate(4096);
+
+    private ConfigJournal(Path file, long compactionThreshold) {
+        this.file = file;
+        this.compactionThreshold = compactionThreshold;
+        this.compactAt = compactionThreshold;
+    }
+
+    /**
+     * Opens or creates a journal with the default compaction threshold.
+     *
+     * @param file the journal file
+     * @return the journal, to be {@linkplain #replay() replayed} before use
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static ConfigJournal open(Path file) throws IOException {
+        return open(file, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens or creates a journal.
+     *
+     * @param file                the journal file
+     * @param compactionThreshold size in bytes past which {@link #isCompactionDue()} reports true
+     * @return the journal, to be {@linkplain #replay() replayed} before use
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static ConfigJournal open(Path file, long compactionThreshold) throws IOException {
+        ConfigJournal journal = new ConfigJournal(file, compactionThreshold);
+        journal.map();
+        return journal;
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize(size));
+        if (size < HEADER_SIZE) {
+            mapped.putInt(0, MAGIC);
+            mapped.putInt(4, 0);
+        } else if (mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a config journal: " + file);
+        }
+    }
+
+    /**
+     * Returns the power of two to map for {@code required} bytes, capped at the largest mappable region.
+     *
+     * @throws IOException if {@code required} does not fit in one mapped region
+     */
+    private int mappedSize(long required) throws IOException {
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Config journal too large: " + file);
+        }
+        long size = MIN_MAPPED_SIZE;
+        while (size < required) {
+            size <<= 1;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Replays all valid records and positions the journal after the last one.
+     * Must be called once before anything is appended.
+     *
+     * @return the configuration of every plugin, as of its last record
+     */
+    public synchronized Map<String, ConfigSnapshot> replay() {
+        Map<String, Map<String, String>> configs = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        int offset = HEADER_SIZE;
+        int records = 0;
+        while (true) {
+            ByteBuffer payload = readRecord(offset);
+            if (payload == null) {
+                break;
+            }
+            offset += FRAME_SIZE + payload.remaining();
+            records++;
+            byte type = payload.get();
+            long version = payload.getLong();
+            String pluginName = readString(payload);
+            if (type == SNAPSHOT) {
+                configs.put(pluginName, readEntries(payload, new HashMap<>()));
+                versions.put(pluginName, version);
+            } else if (type == DELTA) {
+                Map<String, String> config = configs.get(pluginName);
+                if (config != null) {
+                    readEntries(payload, config);
+                    for (int n = payload.getInt(); n > 0; n--) {
+                        config.remove(readString(payload));
+                    }
+                    versions.put(pluginName, version);
+                }
+            } else {
+                configs.remove(pluginName);
+                versions.remove(pluginName);
+            }
+        }
+        // Anything after the last valid record is a torn append; clear it so it cannot be misread later
+        for (int i = offset; i < mapped.capacity(); i++) {
+            if (mapped.get(i) != 0) {
+                logger.warn("Config journal {} has a damaged record at offset {}, discarding the rest", file, offset);
+                clear(i, mapped.capacity());
+                break;
+            }
+        }
+        position = offset;
+        compactAt = Math.max(compactionThreshold, 2L * position);
+        logger.info("Replayed {} config journal records for {} plugins", records, configs.size());
+
+        Map<String, ConfigSnapshot> snapshots = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : configs.entrySet()) {
+            snapshots.put(entry.getKey(), new ConfigSnapshot(entry.getValue(), versions.get(entry.getKey())));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Returns the payload of the record at an offset, or null if there is no valid record there.
+     */
+    private ByteBuffer readRecord(int offset) {
+        if (offset + FRAME_SIZE > mapped.capacity()) {
+            return null;
+        }
+        int length = mapped.getInt(offset);
+        if (length <= 0 || length > mapped.capacity() - offset - FRAME_SIZE) {
+            return null;
+        }
+        ByteBuffer payload = mapped.duplicate();
+        payload.limit(offset + FRAME_SIZE + length).position(offset + FRAME_SIZE);
+        payload = payload.slice();
+        crc.reset();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue() == mapped.getInt(offset + 4) ? payload : null;
+    }
+
+    /**
+     * Appends the full configuration of a plugin.
+     */
+    public synchronized void appendSnapshot(String pluginName, ConfigSnapshot snapshot) throws IOException {
+        beginRecord(SNAPSHOT, snapshot.getVersion(), pluginName);
+        writeEntries(snapshot.getConfig());
+        endRecord();
+    }
+
+    /**
+     * Appends a change to a plugin's configuration.
+     */
+    public synchronized void appendDelta(String pluginName, long version, ConfigDelta delta) throws IOException {
+        beginRecord(DELTA, version, pluginName);
+        writeEntries(delta.getChanged());
+        putInt(delta.getRemoved().size());
+        for (String key : delta.getRemoved()) {
+            putString(key);
+        }
+        endRecord();
+    }
+
+    /**
+     * Appends the removal of a plugin's configuration.
+     */
+    public synchronized void appendRemove(String pluginName) throws IOException {
+        beginRecord(REMOVE, 0, pluginName);
+        endRecord();
+    }
+
+    /**
+     * Returns true once the journal has grown past the point where it should be compacted.
+     */
+    public synchronized boolean isCompactionDue() {
+        return position >= compactAt;
+    }
+
+    /**
+     * Rewrites the journal as one snapshot record per plugin.
+     *
+     * <p>The caller passes the current configuration of every plugin and must
+     * keep other writers out until this returns: a record appended after
+     * {@code configs} was taken would be lost with the old file.
+     * {@link VersionedConfigStore} compacts under the write side of its compaction lock.
+     *
+     * @param configs the current configuration of every plugin
+     * @throws IOException if the new journal cannot be written; the old one is kept
+     */
+    public synchronized void compact(Map<String, ConfigSnapshot> configs) throws IOException {
+        long before = position;
+        long written;
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(0);
+            header.flip();
+            writeFully(out, header);
+            for (Map.Entry<String, ConfigSnapshot> entry : configs.entrySet()) {
+                beginRecord(SNAPSHOT, entry.getValue().getVersion(), entry.getKey());
+                writeEntries(entry.getValue().getConfig());
+                writeFully(out, frame());
+            }
+            out.force(true);
+            written = out.size();
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        map();
+        position = (int) written;
+        compactAt = Math.max(compactionThreshold, 2L * position);
+        logger.info("Compacted config journal {} from {} to {} bytes", file, before, position);
+    }
+
+    /**
+     * Flushes appended records to the storage device.
+     */
+    public synchronized void force() {
+        mapped.force();
+    }
+
+    /**
+     * Returns the number of bytes used, including the header.
+     */
+    public synchronized long size() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapped.force();
+        channel.close();
+    }
+
+    private void beginRecord(byte type, long version, String pluginName) {
+        if (position < 0) {
+            throw new IllegalStateException("Config journal must be replayed before appending");
+        }
+        record.clear();
+        record.position(FRAME_SIZE);
+        ensure(9);
+        record.put(type).putLong(version);
+        putString(pluginName);
+    }
+
+    /**
+     * Fills in the frame of the record being built and returns it, ready to write.
+     */
+    private ByteBuffer frame() {
+        int length = record.position() - FRAME_SIZE;
+        crc.reset();
+        crc.update(record.array(), FRAME_SIZE, length);
+        record.putInt(0, length).putInt(4, (int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private void endRecord() throws IOException {
+        ByteBuffer framed = frame();
+        long end = (long) position + framed.remaining();
+        if (end > mapped.capacity()) {
+            mapped.force();
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize(end));
+        }
+        // Write the payload before its frame, so a torn append never leaves a valid-looking frame
+        ByteBuffer target = mapped.duplicate();
+        target.position(position + FRAME_SIZE);
+        framed.position(FRAME_SIZE);
+        target.put(framed);
+        mapped.putInt(position + 4, record.getInt(4));
+        mapped.putInt(position, record.getInt(0));
+        position = (int) end;
+    }
+
+    private void writeEntries(Map<String, String> entries) {
+        putInt(entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            putString(entry.getKey());
+            putString(entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readEntries(ByteBuffer payload, Map<String, String> into) {
+        for (int n = payload.getInt(); n > 0; n--) {
+            String key = readString(payload);
+            into.put(key, readString(payload));
+        }
+        return into;
+    }
+
+    private void putInt(int value) {
+        ensure(4);
+        record.putInt(value);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        record.putInt(bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int bytes) {
+        if (record.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes));
+            record.flip();
+            larger.put(record);
+            record = larger;
+        }
+    }
+
+    private void clear(int from, int to) {
+        for (int i = from; i < to; i++) {
+            mapped.put(i, (byte) 0);
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
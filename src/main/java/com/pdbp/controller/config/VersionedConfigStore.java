@@ -0,0 +1,280 @@
+package com.pdbp.controller.config;
+
+import com.pdbp.controller.PluginService.ConfigDelta;
+import com.pdbp.controller.PluginService.ConfigSnapshot;
+import com.pdbp.controller.PluginService.ConfigVersionConflictException;
+import com.pdbp.controller.PluginService.PluginNotFoundException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Copy-on-write plugin configuration store for {@link com.pdbp.controller.PluginService} implementations.
+ *
+ * <p>Each plugin's configuration is an immutable {@link ConfigSnapshot} behind an
+ * {@link AtomicReference}. Reads return the current snapshot without locking or
+ * copying, so they never block and never see a half-applied update. Writes to
+ * the same plugin are serialized by a per-plugin lock, copy the map, and publish
+ * a new snapshot with a new version; writes to different plugins run in parallel.
+ *
+ * <p>Versions come from one store-wide clock seeded with the current time in
+ * microseconds, so a version is never reused for a plugin, even after a
+ * restart, as long as the store averages under a million writes per second.
+ *
+ * <p>With a {@link ConfigJournal}, the store is restored from the journal when
+ * created, and every write is appended to it before it is published. A write
+ * that cannot be journaled fails with an {@link UncheckedIOException} and leaves
+ * the configuration unchanged. Whenever the journal reports that compaction is
+ * due, it is rewritten from the store's current state, briefly holding up
+ * writers but not readers.
+ *
+ * @author Saurabh Maurya
+ */
+public class VersionedConfigStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionedConfigStore.class);
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong versionClock = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ConfigJournal journal;
+    private final ReadWriteLock compactionLock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an in-memory store.
+     */
+    public VersionedConfigStore() {
+        this.journal = null;
+    }
+
+    /**
+     * Creates a store that persists to a journal, restoring its configurations from it.
+     *
+     * @param journal an opened journal that has not been replayed yet
+     */
+    public VersionedConfigStore(ConfigJournal journal) {
+        this.journal = journal;
+        for (Map.Entry<String, ConfigSnapshot> entry : journal.replay().entrySet()) {
+            Slot slot = new Slot();
+            slot.current.set(entry.getValue());
+            slots.put(entry.getKey(), slot);
+            versionClock.accumulateAndGet(entry.getValue().getVersion(), Math::max);
+        }
+    }
+
+    /**
+     * Returns the current configuration of a plugin.
+     *
+     * @param pluginName the plugin name
+     * @return the snapshot, or null if the plugin has no configuration
+     */
+    public ConfigSnapshot get(String pluginName) {
+        Slot slot = slots.get(pluginName);
+        return slot != null ? slot.current.get() : null;
+    }
+
+    /**
+     * Returns the names of all plugins with a configuration.
+     */
+    public Set<String> pluginNames() {
+        return Collections.unmodifiableSet(slots.keySet());
+    }
+
+    /**
+     * Sets the whole configuration of a plugin, creating it if needed; used on install.
+     *
+     * @param pluginName the plugin name
+     * @param config     the configuration; copied
+     * @return the new snapshot
+     * @throws UncheckedIOException if the change cannot be journaled
+     */
+    public ConfigSnapshot put(String pluginName, Map<String, String> config) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(pluginName, name -> new Slot());
+            synchronized (slot) {
+                // A concurrent remove may have detached this slot; retry with a fresh one
+                if (slots.get(pluginName) == slot) {
+                    ConfigSnapshot snapshot = new ConfigSnapshot(new HashMap<>(config), versionClock.incrementAndGet());
+                    try {
+                        commit(() -> journal.appendSnapshot(pluginName, snapshot), () -> slot.current.set(snapshot));
+                    } catch (RuntimeException e) {
+                        // Do not leave behind the empty slot created for a plugin that was never stored
+                        if (slot.current.get() == null) {
+                            slots.remove(pluginName, slot);
+                        }
+                        throw e;
+                    }
+                    return snapshot;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a delta to a plugin's configuration if it is still at the expected version.
+     *
+     * @param pluginName      the plugin name
+     * @param delta           keys to set and keys to remove
+     * @param expectedVersion the version the delta was computed against, or {@link ConfigSnapshot#ANY_VERSION}
+     * @return the new snapshot, or the current one if the delta changes nothing
+     * @throws ConfigVersionConflictException if the configuration is at another version
+     * @throws PluginNotFoundException        if the plugin has no configuration
+     * @throws UncheckedIOException           if the change cannot be journaled
+     */
+    public ConfigSnapshot update(String pluginName, ConfigDelta delta, long expectedVersion)
+            throws ConfigVersionConflictException, PluginNotFoundException {
+        Slot slot = slots.get(pluginName);
+        if (slot == null) {
+            throw new PluginNotFoundException(pluginName);
+        }
+        synchronized (slot) {
+            ConfigSnapshot current = slot.current.get();
+            if (current == null) {
+                // Removed while this writer waited for the lock
+                throw new PluginNotFoundException(pluginName);
+            }
+            if (expectedVersion != ConfigSnapshot.ANY_VERSION && expectedVersion != current.getVersion()) {
+                throw new ConfigVersionConflictException(pluginName, current.getVersion());
+            }
+            if (!changes(current.getConfig(), delta)) {
+                return current;
+            }
+            ConfigSnapshot snapshot = new ConfigSnapshot(delta.applyTo(current.getConfig()),
+                    versionClock.incrementAndGet());
+            commit(() -> journal.appendDelta(pluginName, snapshot.getVersion(), delta),
+                    () -> slot.current.set(snapshot));
+            return snapshot;
+        }
+    }
+
+    /**
+     * Removes a plugin's configuration; used on unload.
+     *
+     * @param pluginName the plugin name
+     * @return true if the plugin had a configuration
+     * @throws UncheckedIOException if the change cannot be journaled
+     */
+    public boolean remove(String pluginName) {
+        while (true) {
+            Slot slot = slots.get(pluginName);
+            if (slot == null) {
+                return false;
+            }
+            synchronized (slot) {
+                if (slots.get(pluginName) == slot) {
+                    commit(() -> journal.appendRemove(pluginName), () -> {
+                        slots.remove(pluginName, slot);
+                        slot.current.set(null);
+                    });
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of plugins with a configuration.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Returns the current configuration of every plugin.
+     */
+    public Map<String, ConfigSnapshot> snapshotAll() {
+        Map<String, ConfigSnapshot> snapshots = new HashMap<>();
+        for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+            ConfigSnapshot snapshot = entry.getValue().current.get();
+            if (snapshot != null) {
+                snapshots.put(entry.getKey(), snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Journals a change, then publishes it; without a journal, only publishes it.
+     *
+     * <p>Journaling and publishing hold the read side of the compaction lock, so a
+     * compaction sees every change that has been journaled in the old file.
+     */
+    private void commit(JournalWrite write, Runnable publish) {
+        if (journal == null) {
+            publish.run();
+            return;
+        }
+        compactionLock.readLock().lock();
+        try {
+            write.run();
+            publish.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal plugin configuration", e);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+        compactIfDue();
+    }
+
+    /**
+     * Compacts the journal if due. A failed compaction keeps the old journal and is retried on the next write.
+     */
+    private void compactIfDue() {
+        if (!journal.isCompactionDue()) {
+            return;
+        }
+        compactionLock.writeLock().lock();
+        try {
+            if (journal.isCompactionDue()) {
+                journal.compact(snapshotAll());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to compact config journal", e);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface JournalWrite {
+
+        void run() throws IOException;
+    }
+
+    /**
+     * Returns true if applying the delta would change the configuration.
+     */
+    private static boolean changes(Map<String, String> config, ConfigDelta delta) {
+        for (Map.Entry<String, String> entry : delta.getChanged().entrySet()) {
+            if (!config.containsKey(entry.getKey()) || !Objects.equals(entry.getValue(), config.get(entry.getKey()))) {
+                return true;
+            }
+        }
+        for (String key : delta.getRemoved()) {
+            if (config.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One plugin's configuration; its monitor serializes writers.
+     */
+    private static final class Slot {
+
+        final AtomicReference<ConfigSnapshot> current = new AtomicReference<>();
+    }
+}
@@ -0,0 +1,447 @@
+package com.pdbp.controller.discovery;
+
+import com.pdbp.controller.PluginService.PluginDescriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the plugin JARs in a plugin directory.
+ *
+ * <p>Entries are keyed by JAR path and remember the modification time and size
+ * the JAR had when it was inspected. A full {@link #refresh()} only re-inspects
+ * JARs whose modification time or size changed, and a {@link WatchService}
+ * watcher keeps the index current between refreshes, so
+ * {@link com.pdbp.controller.PluginService#discoverPlugins()} implementations can answer from memory.
+ *
+ * <p>When an index file is given, the index is loaded from it on {@link #start()}
+ * and saved after each full refresh and on {@link #close()}, so a restart only
+ * re-inspects the JARs that changed while the controller was down.
+ *
+ * <p>Listeners added with {@link #addChangeListener(Runnable)} run whenever the
+ * set of discovered plugins changes, so a service can publish
+ * {@code DISCOVERY_CHANGED} and let cached discovery responses be invalidated:
+ *
+ * <pre>
+ * index.addChangeListener(() -&gt; notifier.fire(PluginChangeEvent.Type.DISCOVERY_CHANGED, null));
+ * </pre>
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginDiscoveryIndex implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PluginDiscoveryIndex.class);
+
+    private static final int INDEX_FILE_MAGIC = 0x50444958; // "PDIX"
+    private static final int INDEX_FILE_VERSION = 2;
+
+    /**
+     * Inspects a single JAR and describes the plugin it contains.
+     */
+    @FunctionalInterface
+    public interface JarInspector {
+
+        /**
+         * Inspects a plugin JAR.
+         *
+         * @param jarPath path to the JAR
+         * @return the plugin descriptor, or null if the JAR does not contain a plugin
+         * @throws IOException if the JAR cannot be read
+         */
+        PluginDescriptor inspect(Path jarPath) throws IOException;
+    }
+
+    private final Path pluginDirectory;
+    private final Path indexFile;
+    private final JarInspector inspector;
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong inspections = new AtomicLong();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot = new Snapshot(-1, Collections.<PluginDescriptor>emptyList());
+    private volatile WatchService watchService;
+    private Thread watcherThread;
+
+    /**
+     * Creates an index without on-disk persistence.
+     *
+     * @param pluginDirectory the directory containing plugin JARs
+     * @param inspector       inspects JARs that are new or changed
+     */
+    public PluginDiscoveryIndex(Path pluginDirectory, JarInspector inspector) {
+        this(pluginDirectory, inspector, null);
+    }
+
+    /**
+     * Creates an index.
+     *
+     * @param pluginDirectory the directory containing plugin JARs
+     * @param inspector       inspects JARs that are new or changed
+     * @param indexFile       file the index is persisted to, or null to keep it in memory only
+     */
+    public PluginDiscoveryIndex(Path pluginDirectory, JarInspector inspector, Path indexFile) {
+        this.pluginDirectory = pluginDirectory;
+        this.inspector = inspector;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Loads the persisted index (if any), refreshes it and starts watching the plugin directory.
+     *
+     * @throws IOException if the plugin directory cannot be read or watched
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        long before = version.get();
+        load();
+        notifyIfChanged(before);
+        WatchService service = pluginDirectory.getFileSystem().newWatchService();
+        pluginDirectory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchService = service;
+        refresh();
+
+        watcherThread = new Thread(this::watchLoop, "pdbp-discovery-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Returns the descriptors of all discovered plugins, sorted by JAR path.
+     *
+     * @return immutable list of plugin descriptors
+     */
+    public List<PluginDescriptor> getDescriptors() {
+        Snapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current.version == currentVersion) {
+            return current.descriptors;
+        }
+        List<PluginDescriptor> descriptors = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            if (entry.descriptor != null) {
+                descriptors.add(entry.descriptor);
+            }
+        }
+        descriptors.sort(Comparator.comparing(PluginDescriptor::getJarPath));
+        Snapshot rebuilt = new Snapshot(currentVersion, Collections.unmodifiableList(descriptors));
+        snapshot = rebuilt;
+        return rebuilt.descriptors;
+    }
+
+    /**
+     * Returns a counter that changes whenever the set of discovered plugins changes.
+     *
+     * @return the index version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Adds a listener that runs, on the thread that changed the index, after the set of discovered plugins changes.
+     * A failing listener does not stop the others.
+     *
+     * @param listener the listener
+     */
+    public void addChangeListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns how many JAR inspections the index has performed since it was created.
+     *
+     * @return number of inspections
+     */
+    public long getInspectionCount() {
+        return inspections.get();
+    }
+
+    /**
+     * Rescans the plugin directory, re-inspecting only JARs that are new or changed.
+     *
+     * @throws IOException if the plugin directory cannot be read
+     */
+    public synchronized void refresh() throws IOException {
+        long before = version.get();
+        Set<Path> seen = new HashSet<>();
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(pluginDirectory, "*.jar")) {
+            for (Path jar : jars) {
+                Path key = jar.toAbsolutePath();
+                seen.add(key);
+                update(key);
+            }
+        }
+        for (Path path : entries.keySet()) {
+            if (!seen.contains(path) && entries.remove(path) != null) {
+                version.incrementAndGet();
+            }
+        }
+        notifyIfChanged(before);
+        save();
+    }
+
+    /**
+     * Stops the watcher and persists the index.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            service.close();
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+        save();
+    }
+
+    /**
+     * Brings the entry for a single JAR up to date.
+     */
+    private void update(Path jar) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (entries.remove(jar) != null) {
+                version.incrementAndGet();
+            }
+            return;
+        } catch (IOException e) {
+            logger.warn("Cannot read attributes of plugin JAR {}", jar, e);
+            return;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        Entry existing = entries.get(jar);
+        if (existing != null && existing.lastModified == lastModified && existing.size == size) {
+            return;
+        }
+
+        PluginDescriptor descriptor;
+        try {
+            inspections.incrementAndGet();
+            descriptor = inspector.inspect(jar);
+        } catch (IOException e) {
+            // Typically a JAR that is still being copied. Record nothing, so the next event or refresh retries it.
+            logger.debug("Cannot inspect plugin JAR {}", jar, e);
+            if (entries.remove(jar) != null) {
+                version.incrementAndGet();
+            }
+            return;
+        }
+        entries.put(jar, new Entry(lastModified, size, descriptor));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Runs the change listeners if the index version moved past {@code before}.
+     */
+    private void notifyIfChanged(long before) {
+        if (version.get() == before) {
+            return;
+        }
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Plugin discovery listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Applies file system events until the watcher is closed.
+     */
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (service != null) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            try {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        refresh();
+                        continue;
+                    }
+                    Path jar = pluginDirectory.resolve((Path) event.context()).toAbsolutePath();
+                    if (jar.getFileName().toString().endsWith(".jar")) {
+                        synchronized (this) {
+                            long before = version.get();
+                            update(jar);
+                            notifyIfChanged(before);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to refresh plugin discovery index for {}", pluginDirectory, e);
+            }
+            if (!key.reset()) {
+                logger.warn("Plugin directory {} is no longer watchable", pluginDirectory);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Loads persisted entries; a missing or unreadable index file leaves the index empty.
+     */
+    private void load() {
+        if (indexFile == null || !Files.isRegularFile(indexFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_FILE_MAGIC || in.readInt() != INDEX_FILE_VERSION) {
+                logger.warn("Ignoring plugin discovery index {} with unknown format", indexFile);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Path jar = Paths.get(in.readUTF());
+                long lastModified = in.readLong();
+                long size = in.readLong();
+                PluginDescriptor descriptor = null;
+                if (in.readBoolean()) {
+                    String name = readNullableUTF(in);
+                    String descriptorJarPath = readNullableUTF(in);
+                    String className = readNullableUTF(in);
+                    long descriptorSize = in.readLong();
+                    int dependencyCount = in.readInt();
+                    List<String> dependencies = new ArrayList<>(dependencyCount);
+                    for (int d = 0; d < dependencyCount; d++) {
+                        dependencies.add(in.readUTF());
+                    }
+                    descriptor = new PluginDescriptor(name, descriptorJarPath, className, descriptorSize, dependencies);
+                }
+                entries.put(jar, new Entry(lastModified, size, descriptor));
+            }
+            version.incrementAndGet();
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable plugin discovery index {}", indexFile, e);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Persists the index by writing a temporary file and moving it into place.
+     */
+    private void save() throws IOException {
+        if (indexFile == null) {
+            return;
+        }
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            List<Map.Entry<Path, Entry>> snapshotEntries = new ArrayList<>(entries.entrySet());
+            out.writeInt(INDEX_FILE_MAGIC);
+            out.writeInt(INDEX_FILE_VERSION);
+            out.writeInt(snapshotEntries.size());
+            for (Map.Entry<Path, Entry> mapEntry : snapshotEntries) {
+                Entry entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey().toString());
+                out.writeLong(entry.lastModified);
+                out.writeLong(entry.size);
+                out.writeBoolean(entry.descriptor != null);
+                if (entry.descriptor != null) {
+                    writeNullableUTF(out, entry.descriptor.getName());
+                    writeNullableUTF(out, entry.descriptor.getJarPath());
+                    writeNullableUTF(out, entry.descriptor.getClassName());
+                    out.writeLong(entry.descriptor.getSize());
+                    out.writeInt(entry.descriptor.getDependencies().size());
+                    for (String dependency : entry.descriptor.getDependencies()) {
+                        out.writeUTF(dependency);
+                    }
+                }
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Indexed state of a single JAR.
+     */
+    private static final class Entry {
+
+        private final long lastModified;
+        private final long size;
+        private final PluginDescriptor descriptor;
+
+        private Entry(long lastModified, long size, PluginDescriptor descriptor) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.descriptor = descriptor;
+        }
+    }
+
+    /**
+     * Descriptor list built for a given index version.
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final List<PluginDescriptor> descriptors;
+
+        private Snapshot(long version, List<PluginDescriptor> descriptors) {
+            this.version = version;
+            this.descriptors = descriptors;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.pdbp.controller.dto;
+
+import java.util.List;
+
+/**
+ * Request DTO for bulk lifecycle operations.
+ *
+ * @author Saurabh Maurya
+ */
+public class BulkOperationRequest {
+    
+    private List<String> plugins;
+    private Integer concurrency; // Optional - defaults to the controller's bulk concurrency
+    
+    public BulkOperationRequest() {
+    }
+    
+    public BulkOperationRequest(List<String> plugins, Integer concurrency) {
+        this.plugins = plugins;
+        this.concurrency = concurrency;
+    }
+    
+    public List<String> getPlugins() {
+        return plugins;
+    }
+    
+    public void setPlugins(List<String> plugins) {
+        this.plugins = plugins;
+    }
+    
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+    
+    public void setConcurrency(Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+}
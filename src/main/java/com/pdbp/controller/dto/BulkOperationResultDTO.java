@@ -0,0 +1,56 @@
+package com.pdbp.controller.dto;
+
+/**
+ * DTO for the outcome of one plugin in a bulk lifecycle operation.
+ *
+ * @author Saurabh Maurya
+ */
+public class BulkOperationResultDTO {
+    
+    private String pluginName;
+    private String status; // SUCCEEDED or FAILED
+    private PluginInfoDTO plugin;
+    private String error;
+    
+    public BulkOperationResultDTO() {
+    }
+    
+    public BulkOperationResultDTO(String pluginName, String status, PluginInfoDTO plugin, String error) {
+        this.pluginName = pluginName;
+        this.status = status;
+        this.plugin = plugin;
+        this.error = error;
+    }
+    
+    public String getPluginName() {
+        return pluginName;
+    }
+    
+    public void setPluginName(String pluginName) {
+        this.pluginName = pluginName;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public PluginInfoDTO getPlugin() {
+        return plugin;
+    }
+    
+    public void setPlugin(PluginInfoDTO plugin) {
+        this.plugin = plugin;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
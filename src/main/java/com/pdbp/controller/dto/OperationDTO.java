@@ -0,0 +1,97 @@
+package com.pdbp.controller.dto;
+
+/**
+ * DTO for an asynchronous lifecycle operation.
+ *
+ * @author Saurabh Maurya
+ */
+public class OperationDTO {
+    
+    private String id;
+    private String type;
+    private String pluginName;
+    private String status;
+    private long submittedAt;
+    private Long completedAt;
+    private PluginInfoDTO plugin;
+    private String error;
+    
+    public OperationDTO() {
+    }
+    
+    public OperationDTO(String id, String type, String pluginName, String status, long submittedAt,
+            Long completedAt, PluginInfoDTO plugin, String error) {
+        this.id = id;
+        this.type = type;
+        this.pluginName = pluginName;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+        this.plugin = plugin;
+        this.error = error;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getPluginName() {
+        return pluginName;
+    }
+    
+    public void setPluginName(String pluginName) {
+        this.pluginName = pluginName;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+    
+    public Long getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(Long completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public PluginInfoDTO getPlugin() {
+        return plugin;
+    }
+    
+    public void setPlugin(PluginInfoDTO plugin) {
+        this.plugin = plugin;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
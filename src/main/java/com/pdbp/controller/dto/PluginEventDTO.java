@@ -0,0 +1,56 @@
+package com.pdbp.controller.dto;
+
+/**
+ * DTO for a plugin change event sent on the event stream.
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginEventDTO {
+    
+    private long id;
+    private String type;
+    private String pluginName;
+    private long timestamp;
+    
+    public PluginEventDTO() {
+    }
+    
+    public PluginEventDTO(long id, String type, String pluginName, long timestamp) {
+        this.id = id;
+        this.type = type;
+        this.pluginName = pluginName;
+        this.timestamp = timestamp;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public void setId(long id) {
+        this.id = id;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getPluginName() {
+        return pluginName;
+    }
+    
+    public void setPluginName(String pluginName) {
+        this.pluginName = pluginName;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
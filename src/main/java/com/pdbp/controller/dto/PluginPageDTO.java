@@ -0,0 +1,38 @@
+package com.pdbp.controller.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the plugin listing.
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginPageDTO {
+    
+    private List<PluginInfoDTO> plugins;
+    private String nextCursor; // Pass as "after" to fetch the next page; null on the last page
+    
+    public PluginPageDTO() {
+    }
+    
+    public PluginPageDTO(List<PluginInfoDTO> plugins, String nextCursor) {
+        this.plugins = plugins;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<PluginInfoDTO> getPlugins() {
+        return plugins;
+    }
+    
+    public void setPlugins(List<PluginInfoDTO> plugins) {
+        this.plugins = plugins;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,150 @@
+package com.pdbp.controller.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * One client connected to the event stream.
+ *
+ * <p>Frames are queued in a fixed-size ring buffer and written with
+ * non-blocking servlet I/O, so a slow client never blocks the thread that
+ * publishes events. A client whose buffer fills up is disconnected.
+ *
+ * @author Saurabh Maurya
+ */
+class EventSubscriber implements WriteListener, AsyncListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSubscriber.class);
+
+    private final PluginEventStream stream;
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final Executor dispatcher;
+    private final byte[][] frames;
+
+    // Guarded by this
+    private int head;
+    private int size;
+    private boolean drainScheduled;
+    private boolean flushPending;
+    private boolean closed;
+
+    EventSubscriber(PluginEventStream stream, AsyncContext asyncContext, int bufferCapacity, Executor dispatcher)
+            throws IOException {
+        this.stream = stream;
+        this.asyncContext = asyncContext;
+        this.out = asyncContext.getResponse().getOutputStream();
+        this.dispatcher = dispatcher;
+        this.frames = new byte[bufferCapacity][];
+    }
+
+    /**
+     * Queues a frame and schedules a drain on the dispatcher.
+     *
+     * @param frame encoded SSE frame, shared between subscribers
+     * @return false if the buffer is full or the subscriber is closed
+     */
+    synchronized boolean offer(byte[] frame) {
+        if (closed || size == frames.length) {
+            return false;
+        }
+        frames[(head + size) % frames.length] = frame;
+        size++;
+        if (!drainScheduled) {
+            drainScheduled = true;
+            dispatcher.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Writes queued frames while the connection accepts data. Called on the
+     * dispatcher after an offer and by the container when the socket drains.
+     */
+    synchronized void drain() {
+        drainScheduled = false;
+        if (closed) {
+            return;
+        }
+        try {
+            while (out.isReady()) {
+                if (size == 0) {
+                    if (!flushPending) {
+                        return;
+                    }
+                    flushPending = false;
+                    out.flush();
+                    continue;
+                }
+                byte[] frame = frames[head];
+                frames[head] = null;
+                head = (head + 1) % frames.length;
+                size--;
+                out.write(frame);
+                flushPending = true;
+            }
+            // Not ready: the container calls onWritePossible once the pending write completes
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Event subscriber write failed", e);
+            close();
+        }
+    }
+
+    /**
+     * Ends the response and detaches the subscriber from the stream.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            size = 0;
+        }
+        stream.unsubscribe(this);
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        logger.debug("Event subscriber connection failed", t);
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Not restarted
+    }
+}
@@ -0,0 +1,182 @@
+package com.pdbp.controller.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pdbp.controller.PluginService.PluginChangeEvent;
+import com.pdbp.controller.PluginService.PluginChangeListener;
+import com.pdbp.controller.dto.PluginEventDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-Sent Events stream of plugin changes.
+ *
+ * <p>Each change event is encoded once into an SSE frame and the same bytes
+ * are queued to every subscriber, so the cost per event is one encoding plus
+ * one ring-buffer offer per subscriber. Writes happen on a dispatcher thread
+ * with non-blocking servlet I/O. A subscriber that falls a full buffer behind
+ * is disconnected; it can reconnect and re-read the plugin list.
+ *
+ * <pre>
+ * id: 42
+ * event: STARTED
+ * data: {"id":42,"type":"STARTED","pluginName":"my-plugin","timestamp":1700000000000}
+ * </pre>
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginEventStream implements PluginChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PluginEventStream.class);
+
+    /**
+     * Sent on connect: an opening comment to commit the stream, and the client reconnect delay.
+     */
+    private static final byte[] OPEN_FRAME = ": connected\nretry: 5000\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Comment frame that keeps idle connections open through proxies and detects dead clients.
+     */
+    private static final byte[] HEARTBEAT_FRAME = ": keepalive\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectWriter eventWriter;
+    private final int maxSubscribers;
+    private final int bufferCapacity;
+    private final Set<EventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicLong eventIds = new AtomicLong();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    /**
+     * Creates a stream.
+     *
+     * @param eventWriter       writer for {@link PluginEventDTO}
+     * @param maxSubscribers    maximum number of connected clients
+     * @param bufferCapacity    frames buffered per client before it is dropped
+     * @param heartbeatSeconds  interval between keep-alive comments
+     */
+    public PluginEventStream(ObjectWriter eventWriter, int maxSubscribers, int bufferCapacity, long heartbeatSeconds) {
+        this.eventWriter = eventWriter;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferCapacity = bufferCapacity;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "pdbp-events"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+                runnable -> daemon(runnable, "pdbp-events-heartbeat"));
+        heartbeat.scheduleAtFixedRate(() -> broadcast(HEARTBEAT_FRAME), heartbeatSeconds, heartbeatSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Turns a request into a stream subscription.
+     *
+     * <p>Commits the response headers, switches the request to async mode and
+     * returns; the connection stays open until the client goes away, falls
+     * too far behind or the stream is closed.
+     *
+     * @param request  the servlet request
+     * @param response the servlet response
+     * @return false if the subscriber limit is reached and nothing was written
+     * @throws IOException if the response cannot be committed
+     */
+    public boolean subscribe(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (subscribers.size() >= maxSubscribers) {
+            return false;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+        // Commit in blocking mode so the framework skips writing a body of its own
+        response.flushBuffer();
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+        EventSubscriber subscriber = new EventSubscriber(this, asyncContext, bufferCapacity, dispatcher);
+        asyncContext.addListener(subscriber);
+        // Non-blocking mode must be on before any frame is drained
+        response.getOutputStream().setWriteListener(subscriber);
+        subscriber.offer(OPEN_FRAME);
+        subscribers.add(subscriber);
+        return true;
+    }
+
+    /**
+     * Encodes a change event once and queues it to every subscriber.
+     */
+    @Override
+    public void onChange(PluginChangeEvent event) {
+        long id = eventIds.incrementAndGet();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String type = event.getType().name();
+        PluginEventDTO dto = new PluginEventDTO(id, type, event.getPluginName(), System.currentTimeMillis());
+        try {
+            String frame = "id: " + id + "\nevent: " + type + "\ndata: " + eventWriter.writeValueAsString(dto) + "\n\n";
+            broadcast(frame.getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to encode plugin event {}", type, e);
+        }
+    }
+
+    private void broadcast(byte[] frame) {
+        for (EventSubscriber subscriber : subscribers) {
+            if (!subscriber.offer(frame)) {
+                droppedSubscribers.increment();
+                logger.debug("Dropping event subscriber that fell {} events behind", bufferCapacity);
+                subscriber.close();
+            }
+        }
+    }
+
+    void unsubscribe(EventSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Summarizes the stream for the metrics endpoint.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("subscribers", subscribers.size());
+        snapshot.put("eventsPublished", eventIds.get());
+        snapshot.put("droppedSubscribers", droppedSubscribers.sum());
+        return snapshot;
+    }
+
+    /**
+     * Disconnects all subscribers and stops the stream threads.
+     */
+    public void close() {
+        heartbeat.shutdownNow();
+        for (EventSubscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        dispatcher.shutdown();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,138 @@
+package com.pdbp.controller.format;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.pdbp.controller.dto.OperationDTO;
+import com.pdbp.controller.dto.PluginDescriptorDTO;
+import com.pdbp.controller.dto.PluginInfoDTO;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializers for the DTOs on the hottest response paths.
+ *
+ * <p>They call the getters directly instead of going through Jackson's
+ * reflective bean serializer, and write pre-encoded field names. Output is
+ * the same as the bean serializer's: same fields, same order, nulls included.
+ * A field added to one of these DTOs must be added here too.
+ *
+ * @author Saurabh Maurya
+ */
+public class DtoSerializerModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString JAR_PATH = new SerializedString("jarPath");
+    private static final SerializableString CLASS_NAME = new SerializedString("className");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString PLUGIN_NAME = new SerializedString("pluginName");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString SUBMITTED_AT = new SerializedString("submittedAt");
+    private static final SerializableString COMPLETED_AT = new SerializedString("completedAt");
+    private static final SerializableString PLUGIN = new SerializedString("plugin");
+    private static final SerializableString ERROR = new SerializedString("error");
+
+    public DtoSerializerModule() {
+        super("pdbp-dto-serializers");
+        addSerializer(PluginInfoDTO.class, new PluginInfoSerializer());
+        addSerializer(PluginDescriptorDTO.class, new PluginDescriptorSerializer());
+        addSerializer(OperationDTO.class, new OperationSerializer());
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value != null) {
+            gen.writeString(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writePluginInfo(JsonGenerator gen, PluginInfoDTO info) throws IOException {
+        gen.writeStartObject(info);
+        writeString(gen, NAME, info.getName());
+        writeString(gen, VERSION, info.getVersion());
+        writeString(gen, STATE, info.getState());
+        writeString(gen, JAR_PATH, info.getJarPath());
+        gen.writeEndObject();
+    }
+
+    private static final class PluginInfoSerializer extends StdSerializer<PluginInfoDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        PluginInfoSerializer() {
+            super(PluginInfoDTO.class);
+        }
+
+        @Override
+        public void serialize(PluginInfoDTO info, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writePluginInfo(gen, info);
+        }
+    }
+
+    private static final class PluginDescriptorSerializer extends StdSerializer<PluginDescriptorDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        PluginDescriptorSerializer() {
+            super(PluginDescriptorDTO.class);
+        }
+
+        @Override
+        public void serialize(PluginDescriptorDTO descriptor, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(descriptor);
+            writeString(gen, NAME, descriptor.getName());
+            writeString(gen, JAR_PATH, descriptor.getJarPath());
+            writeString(gen, CLASS_NAME, descriptor.getClassName());
+            gen.writeFieldName(SIZE);
+            gen.writeNumber(descriptor.getSize());
+            gen.writeEndObject();
+        }
+    }
+
+    private static final class OperationSerializer extends StdSerializer<OperationDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        OperationSerializer() {
+            super(OperationDTO.class);
+        }
+
+        @Override
+        public void serialize(OperationDTO operation, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(operation);
+            writeString(gen, ID, operation.getId());
+            writeString(gen, TYPE, operation.getType());
+            writeString(gen, PLUGIN_NAME, operation.getPluginName());
+            writeString(gen, STATUS, operation.getStatus());
+            gen.writeFieldName(SUBMITTED_AT);
+            gen.writeNumber(operation.getSubmittedAt());
+            gen.writeFieldName(COMPLETED_AT);
+            if (operation.getCompletedAt() != null) {
+                gen.writeNumber(operation.getCompletedAt());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(PLUGIN);
+            if (operation.getPlugin() != null) {
+                writePluginInfo(gen, operation.getPlugin());
+            } else {
+                gen.writeNull();
+            }
+            writeString(gen, ERROR, operation.getError());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pdbp.controller.format;
+
+/**
+ * Body formats the controller can read and write. All share the same DTOs.
+ *
+ * @author Saurabh Maurya
+ */
+public enum WireFormat {
+
+    JSON("application/json", "json"),
+    CBOR("application/cbor", "cbor"),
+    SMILE("application/x-jackson-smile", "smile");
+
+    private final String mediaType;
+    private final String token;
+
+    WireFormat(String mediaType, String token) {
+        this.mediaType = mediaType;
+        this.token = token;
+    }
+
+    /**
+     * Returns the media type used in {@code Accept} and {@code Content-Type}.
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns a short name for cache keys and entity tags.
+     */
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,186 @@
+package com.pdbp.controller.format;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Per-format Jackson mappers and {@code Accept}/{@code Content-Type} negotiation.
+ *
+ * <p>Every mapper is built by the same factory function, so the binary formats
+ * share the JSON mapper's configuration and serialize the same DTOs.
+ *
+ * <p>Requests are written and read through typed {@link ObjectWriter}s and
+ * {@link ObjectReader}s, built once per format and type, so the root
+ * serializer or deserializer lookup is not repeated on every request.
+ * Writers do not flush after each value, which lets them append to a
+ * streamed array.
+ *
+ * <p>Writers and readers are built on first use. {@link #warmUp(Map)} builds
+ * them for the registered types ahead of time, off the request path.
+ *
+ * @author Saurabh Maurya
+ */
+public class WireFormats {
+
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final Map<WireFormat, ConcurrentMap<JavaType, ObjectWriter>> writers = new EnumMap<>(WireFormat.class);
+    private final Map<WireFormat, ConcurrentMap<JavaType, ObjectReader>> readers = new EnumMap<>(WireFormat.class);
+    private final List<JavaType> types;
+
+    /**
+     * Creates the mappers.
+     *
+     * @param mapperFactory creates a configured mapper over the given format factory
+     * @param types         types that {@link #warmUp(Map)} builds writers and readers for
+     */
+    public WireFormats(Function<JsonFactory, ObjectMapper> mapperFactory, JavaType... types) {
+        mappers.put(WireFormat.JSON, mapperFactory.apply(new JsonFactory()));
+        mappers.put(WireFormat.CBOR, mapperFactory.apply(new CBORFactory()));
+        mappers.put(WireFormat.SMILE, mapperFactory.apply(new SmileFactory()));
+        for (WireFormat format : WireFormat.values()) {
+            writers.put(format, new ConcurrentHashMap<>());
+            readers.put(format, new ConcurrentHashMap<>());
+        }
+        this.types = Collections.unmodifiableList(Arrays.asList(types.clone()));
+    }
+
+    /**
+     * Builds the writers and readers of the registered types in every format.
+     *
+     * <p>Each sample is also written and read back, which loads the generator and
+     * parser classes and runs the serializers once before the first request does.
+     *
+     * @param samples a value of each registered type to round-trip; types without one are only built
+     * @throws IOException if a sample cannot be written or read
+     */
+    public void warmUp(Map<JavaType, Object> samples) throws IOException {
+        for (WireFormat format : WireFormat.values()) {
+            for (JavaType type : types) {
+                ObjectWriter writer = writer(format, type);
+                ObjectReader reader = reader(format, type);
+                Object sample = samples.get(type);
+                if (sample != null) {
+                    reader.readValue(writer.writeValueAsBytes(sample));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the mapper for a format.
+     */
+    public ObjectMapper mapper(WireFormat format) {
+        return mappers.get(format);
+    }
+
+    /**
+     * Returns the writer of a type in a format.
+     */
+    public ObjectWriter writer(WireFormat format, JavaType type) {
+        return writers.get(format).computeIfAbsent(type, key ->
+                mappers.get(format).writerFor(key).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+    }
+
+    /**
+     * Returns the reader of a type in a format.
+     */
+    public ObjectReader reader(WireFormat format, JavaType type) {
+        return readers.get(format).computeIfAbsent(type, key -> mappers.get(format).readerFor(key));
+    }
+
+    /**
+     * Picks the response format for an {@code Accept} header.
+     *
+     * <p>Binary formats are used only when listed explicitly with a quality at least
+     * that of JSON; wildcards select JSON, which is also the default.
+     *
+     * @param accept the {@code Accept} header, or null
+     * @return the format
+     */
+    public WireFormat negotiate(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return WireFormat.JSON;
+        }
+        double json = -1;
+        double wildcard = -1;
+        double cbor = -1;
+        double smile = -1;
+        for (String range : accept.split(",")) {
+            int semicolon = range.indexOf(';');
+            String mediaType = (semicolon >= 0 ? range.substring(0, semicolon) : range).trim().toLowerCase(Locale.ROOT);
+            double quality = semicolon >= 0 ? parseQuality(range.substring(semicolon + 1)) : 1;
+            if (mediaType.equals(WireFormat.JSON.getMediaType())) {
+                json = Math.max(json, quality);
+            } else if (mediaType.equals(WireFormat.CBOR.getMediaType())) {
+                cbor = Math.max(cbor, quality);
+            } else if (mediaType.equals(WireFormat.SMILE.getMediaType())) {
+                smile = Math.max(smile, quality);
+            } else if (mediaType.equals("*/*") || mediaType.equals("application/*")) {
+                wildcard = Math.max(wildcard, quality);
+            }
+        }
+        // Explicit entries beat wildcards of equal quality; among explicit ties the earlier format wins
+        WireFormat best = WireFormat.JSON;
+        double bestQuality = json >= 0 ? json : wildcard;
+        boolean explicit = json >= 0;
+        if (cbor > 0 && (cbor > bestQuality || (cbor == bestQuality && !explicit))) {
+            best = WireFormat.CBOR;
+            bestQuality = cbor;
+            explicit = true;
+        }
+        if (smile > 0 && (smile > bestQuality || (smile == bestQuality && !explicit))) {
+            best = WireFormat.SMILE;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the format of a request body.
+     *
+     * @param contentType the {@code Content-Type} header, or null
+     * @return the binary format it names, otherwise JSON
+     */
+    public WireFormat forContentType(String contentType) {
+        if (contentType != null) {
+            String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            if (mediaType.equals(WireFormat.CBOR.getMediaType())) {
+                return WireFormat.CBOR;
+            }
+            if (mediaType.equals(WireFormat.SMILE.getMediaType())) {
+                return WireFormat.SMILE;
+            }
+        }
+        return WireFormat.JSON;
+    }
+
+    private static double parseQuality(String params) {
+        for (String param : params.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
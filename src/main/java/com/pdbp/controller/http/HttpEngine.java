@@ -0,0 +1,101 @@
+package com.pdbp.controller.http;
+
+/**
+ * The HTTP server the controller registers its routes with.
+ *
+ * <p>The controller only sees {@link HttpRequest} and {@link HttpResponse}, so
+ * the server behind it is a deployment choice: {@link SparkEngine} runs on
+ * Spark's embedded Jetty, and {@link JdkHttpEngine} on the JDK's built-in
+ * server. {@link HttpEngines#create(String, int)} picks one by name.
+ *
+ * <p>Requests are handled the way Spark handles them: {@code before} filters
+ * in registration order, then the first route whose method and template
+ * match, then {@code afterAfter} filters, which also run when the route
+ * throws. A route returns the body as a {@code String} or {@code byte[]}; if
+ * it wrote the body itself through {@link HttpResponse#outputStream()} or
+ * {@link HttpResponse#send(byte[])}, the return value is ignored. A route that
+ * returns null is treated as not found.
+ *
+ * @author Saurabh Maurya
+ */
+public interface HttpEngine {
+
+    /**
+     * Registers a filter that runs before every request.
+     */
+    void before(Filter filter);
+
+    /**
+     * Registers a filter that runs after every request, including failed ones.
+     */
+    void afterAfter(Filter filter);
+
+    /**
+     * Registers a route.
+     *
+     * @param method   HTTP method, e.g. {@code GET}
+     * @param template path template; {@code :name} matches one segment, a trailing {@code *} the rest
+     * @param route    the handler
+     */
+    void route(String method, String template, Route route);
+
+    /**
+     * Registers the handler for requests that match no route.
+     */
+    void notFound(Route route);
+
+    /**
+     * Registers the handler for exceptions of a type thrown by routes; the most specific type wins.
+     */
+    <T extends Exception> void exception(Class<T> type, ExceptionHandler<? super T> handler);
+
+    /**
+     * Starts accepting requests; routes may still be added afterwards.
+     *
+     * @throws java.io.UncheckedIOException if the server cannot bind its port
+     */
+    void start();
+
+    /**
+     * Blocks until the server accepts requests.
+     */
+    void awaitInitialization();
+
+    /**
+     * Stops the server.
+     */
+    void stop();
+
+    /**
+     * Handles a request.
+     */
+    @FunctionalInterface
+    interface Route {
+
+        /**
+         * @return the body, or null if there is nothing at this path
+         */
+        Object handle(HttpRequest request, HttpResponse response) throws Exception;
+    }
+
+    /**
+     * Runs before or after a route.
+     */
+    @FunctionalInterface
+    interface Filter {
+
+        void handle(HttpRequest request, HttpResponse response) throws Exception;
+    }
+
+    /**
+     * Turns an exception thrown by a route into a response.
+     */
+    @FunctionalInterface
+    interface ExceptionHandler<T extends Exception> {
+
+        /**
+         * @return the body
+         */
+        Object handle(T exception, HttpRequest request, HttpResponse response);
+    }
+}
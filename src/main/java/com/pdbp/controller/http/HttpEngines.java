@@ -0,0 +1,44 @@
+package com.pdbp.controller.http;
+
+import java.util.Locale;
+
+/**
+ * Creates an {@link HttpEngine} from its configured name.
+ *
+ * @author Saurabh Maurya
+ */
+public final class HttpEngines {
+
+    /**
+     * Spark on embedded Jetty: a pool of Jetty threads; the only engine that supports {@code /api/events}.
+     */
+    public static final String SPARK = "spark";
+
+    /**
+     * The JDK's built-in server: virtual threads on Java 21+, a fixed thread pool before.
+     */
+    public static final String JDK = "jdk";
+
+    private HttpEngines() {
+    }
+
+    /**
+     * Creates an engine by name.
+     *
+     * @param name {@value #SPARK} or {@value #JDK}, case-insensitive
+     * @param port the port to listen on
+     * @return the engine, not started yet
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static HttpEngine create(String name, int port) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case SPARK:
+                return new SparkEngine(port);
+            case JDK:
+                return new JdkHttpEngine(port);
+            default:
+                throw new IllegalArgumentException("Unknown HTTP engine '" + name + "', expected " + SPARK + " or "
+                        + JDK);
+        }
+    }
+}
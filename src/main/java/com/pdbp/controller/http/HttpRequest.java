@@ -0,0 +1,66 @@
+package com.pdbp.controller.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An HTTP request as seen by route handlers, independent of the {@link HttpEngine} serving it.
+ *
+ * @author Saurabh Maurya
+ */
+public interface HttpRequest {
+
+    /**
+     * Returns the HTTP method, e.g. {@code GET}.
+     */
+    String method();
+
+    /**
+     * Returns the decoded request path, without the query string.
+     */
+    String path();
+
+    /**
+     * Returns a path parameter of the matched route.
+     *
+     * @param name the parameter name, without the leading colon
+     * @return the decoded value, or null if the route has no such parameter
+     */
+    String pathParam(String name);
+
+    /**
+     * Returns the first value of a query parameter.
+     *
+     * @return the decoded value, or null if absent
+     */
+    String queryParam(String name);
+
+    /**
+     * Returns the first value of a header; names are case-insensitive.
+     *
+     * @return the value, or null if absent
+     */
+    String header(String name);
+
+    /**
+     * Returns the {@code Content-Type} header, or null.
+     */
+    String contentType();
+
+    /**
+     * Returns the declared body length, or -1 if unknown, e.g. for a chunked body.
+     */
+    long contentLength();
+
+    /**
+     * Returns the body as it arrives from the client, without buffering it first. Can be read once.
+     */
+    InputStream body() throws IOException;
+
+    /**
+     * Returns the engine's own request object if it is of the given type, e.g. {@code HttpServletRequest}.
+     *
+     * @return the request, or null if the engine does not use that type
+     */
+    <T> T unwrap(Class<T> type);
+}
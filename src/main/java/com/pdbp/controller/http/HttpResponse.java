@@ -0,0 +1,60 @@
+package com.pdbp.controller.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An HTTP response as seen by route handlers, independent of the {@link HttpEngine} serving it.
+ *
+ * <p>Status and headers can be changed until the response is committed by
+ * {@link #outputStream()} or {@link #send(byte[])}.
+ *
+ * @author Saurabh Maurya
+ */
+public interface HttpResponse {
+
+    /**
+     * Sets the status; 200 unless set.
+     */
+    void status(int status);
+
+    /**
+     * Returns the status.
+     */
+    int status();
+
+    /**
+     * Sets the {@code Content-Type}.
+     */
+    void type(String contentType);
+
+    /**
+     * Sets a header, replacing any values it has.
+     *
+     * @param value the value, or null to remove the header
+     */
+    void header(String name, String value);
+
+    /**
+     * Adds a value to a header, keeping the values it has.
+     */
+    void addHeader(String name, String value);
+
+    /**
+     * Commits the response and returns the stream to write the body to, without a length. Status and headers
+     * should be set before calling this; engines send them no later than the first byte written.
+     */
+    OutputStream outputStream() throws IOException;
+
+    /**
+     * Writes a complete body with its length and commits the response.
+     */
+    void send(byte[] body) throws IOException;
+
+    /**
+     * Returns the engine's own response object if it is of the given type, e.g. {@code HttpServletResponse}.
+     *
+     * @return the response, or null if the engine does not use that type
+     */
+    <T> T unwrap(Class<T> type);
+}
@@ -0,0 +1,494 @@
+package com.pdbp.controller.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link HttpEngine} on the JDK's built-in {@code com.sun.net.httpserver} server.
+ *
+ * <p>Requests run on the given executor. By default that is one virtual thread
+ * per request on Java 21 and later, so a request blocked on the plugin service
+ * does not hold a platform thread, and a fixed pool of platform threads on
+ * older JDKs. Routes are matched in registration order, as in Spark.
+ *
+ * <p>The JDK server has no asynchronous request mode, so
+ * {@link HttpRequest#unwrap(Class)} returns null for servlet types and
+ * features that need them, such as the event stream, are unavailable.
+ *
+ * <p>Creating an engine sets the JVM-wide system property
+ * {@code sun.net.httpserver.nodelay} to {@code true} unless it is already set,
+ * which disables Nagle's algorithm for every JDK {@code HttpServer} in the
+ * process. Set the property to {@code false} before creating the engine to
+ * keep the JDK default.
+ *
+ * @author Saurabh Maurya
+ */
+public class JdkHttpEngine implements HttpEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdkHttpEngine.class);
+
+    /**
+     * Connections the OS queues while all handlers are busy.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * The server writes response headers and body separately, so with Nagle's
+     * algorithm on, every keep-alive response waits for the client's delayed ACK.
+     * The server reads this property once, when it is first used.
+     */
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final List<Filter> beforeFilters = new CopyOnWriteArrayList<>();
+    private final List<Filter> afterAfterFilters = new CopyOnWriteArrayList<>();
+    private final List<RouteEntry> routes = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, ExceptionHandler<?>> exceptionHandlers = new HashMap<>();
+    private volatile Route notFound = (request, response) -> {
+        response.status(404);
+        return "Not found";
+    };
+
+    /**
+     * Creates an engine on the default executor, which it shuts down on {@link #stop()}.
+     * Sets {@code sun.net.httpserver.nodelay} if unset, see the class documentation.
+     *
+     * @param port the port to listen on
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public JdkHttpEngine(int port) {
+        this(port, newDefaultExecutor(), true);
+    }
+
+    /**
+     * Creates an engine on a caller-managed executor.
+     * Sets {@code sun.net.httpserver.nodelay} if unset, see the class documentation.
+     *
+     * @param port     the port to listen on
+     * @param executor runs request handlers
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public JdkHttpEngine(int port, ExecutorService executor) {
+        this(port, executor, false);
+    }
+
+    private JdkHttpEngine(int port, ExecutorService executor, boolean ownsExecutor) {
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+            logger.info("Set {}=true for all JDK HTTP servers in this JVM", NO_DELAY_PROPERTY);
+        }
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bind port " + port, e);
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Returns a virtual-thread-per-request executor on Java 21+, otherwise a fixed pool of daemon threads.
+     */
+    public static ExecutorService newDefaultExecutor() {
+        try {
+            // Looked up reflectively so the module still builds for Java 8
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(8, 4 * Runtime.getRuntime().availableProcessors()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "pdbp-http-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    @Override
+    public void before(Filter filter) {
+        beforeFilters.add(filter);
+    }
+
+    @Override
+    public void afterAfter(Filter filter) {
+        afterAfterFilters.add(filter);
+    }
+
+    @Override
+    public void route(String method, String template, Route route) {
+        routes.add(new RouteEntry(method, template, route));
+    }
+
+    @Override
+    public void notFound(Route route) {
+        notFound = route;
+    }
+
+    @Override
+    public synchronized <T extends Exception> void exception(Class<T> type, ExceptionHandler<? super T> handler) {
+        exceptionHandlers.put(type, handler);
+    }
+
+    @Override
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void awaitInitialization() {
+        // start() returns once the socket is bound
+    }
+
+    @Override
+    public void stop() {
+        server.stop(0);
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        JdkRequest request = new JdkRequest(exchange);
+        JdkResponse response = new JdkResponse(exchange);
+        Object body;
+        try {
+            try {
+                for (Filter filter : beforeFilters) {
+                    filter.handle(request, response);
+                }
+                body = dispatch(request, response);
+            } catch (Exception e) {
+                body = handleException(e, request, response);
+            } finally {
+                for (Filter filter : afterAfterFilters) {
+                    try {
+                        filter.handle(request, response);
+                    } catch (Exception e) {
+                        logger.warn("After filter failed", e);
+                    }
+                }
+            }
+            response.finish(body);
+        } catch (IOException e) {
+            logger.debug("Failed to write response to {}", exchange.getRemoteAddress(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Object dispatch(JdkRequest request, JdkResponse response) throws Exception {
+        String method = request.method();
+        // Match the raw path so that an encoded slash stays inside its segment
+        String path = request.exchange.getRequestURI().getRawPath();
+        for (RouteEntry entry : routes) {
+            if (entry.method.equals(method)) {
+                Map<String, String> params = entry.match(path);
+                if (params != null) {
+                    request.params = params;
+                    Object body = entry.route.handle(request, response);
+                    if (body != null || response.committed) {
+                        return body;
+                    }
+                }
+            }
+        }
+        request.params = Collections.emptyMap();
+        return notFound.handle(request, response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object handleException(Exception exception, HttpRequest request, JdkResponse response) {
+        ExceptionHandler<Exception> handler = null;
+        synchronized (this) {
+            for (Class<?> type = exception.getClass(); handler == null && type != null; type = type.getSuperclass()) {
+                handler = (ExceptionHandler<Exception>) exceptionHandlers.get(type);
+            }
+        }
+        if (handler == null) {
+            logger.error("Unhandled exception for {} {}", request.method(), request.path(), exception);
+            response.status(500);
+            return "";
+        }
+        return handler.handle(exception, request, response);
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    /**
+     * A route and its template split into segments.
+     */
+    private static final class RouteEntry {
+
+        final String method;
+        final String[] segments;
+        final Route route;
+
+        RouteEntry(String method, String template, Route route) {
+            this.method = method;
+            this.route = route;
+            List<String> parts = new ArrayList<>();
+            for (String segment : template.split("/")) {
+                if (!segment.isEmpty()) {
+                    parts.add(segment);
+                }
+            }
+            this.segments = parts.toArray(new String[0]);
+        }
+
+        /**
+         * Returns the path parameters if the path matches, otherwise null. Tolerates a trailing slash.
+         */
+        Map<String, String> match(String path) {
+            Map<String, String> params = Collections.emptyMap();
+            int length = path.length();
+            int pos = 0;
+            for (String segment : segments) {
+                if (segment.equals("*")) {
+                    return params;
+                }
+                if (pos >= length || path.charAt(pos) != '/') {
+                    return null;
+                }
+                pos++;
+                int end = path.indexOf('/', pos);
+                if (end < 0) {
+                    end = length;
+                }
+                if (segment.charAt(0) == ':') {
+                    if (end == pos) {
+                        return null;
+                    }
+                    if (params.isEmpty()) {
+                        params = new HashMap<>(4);
+                    }
+                    params.put(segment.substring(1), decode(path.substring(pos, end)));
+                } else if (end - pos != segment.length() || !path.regionMatches(pos, segment, 0, segment.length())) {
+                    return null;
+                }
+                pos = end;
+            }
+            return pos == length || (pos == length - 1 && path.charAt(pos) == '/') ? params : null;
+        }
+    }
+
+    private static final class JdkRequest implements HttpRequest {
+
+        private final HttpExchange exchange;
+        private Map<String, String> params = Collections.emptyMap();
+        private Map<String, String> query;
+
+        JdkRequest(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public String method() {
+            return exchange.getRequestMethod();
+        }
+
+        @Override
+        public String path() {
+            return exchange.getRequestURI().getPath();
+        }
+
+        @Override
+        public String pathParam(String name) {
+            return params.get(name);
+        }
+
+        @Override
+        public String queryParam(String name) {
+            if (query == null) {
+                query = parseQuery(exchange.getRequestURI().getRawQuery());
+            }
+            return query.get(name);
+        }
+
+        private static Map<String, String> parseQuery(String rawQuery) {
+            if (rawQuery == null || rawQuery.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Map<String, String> query = new HashMap<>();
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = decode(equals >= 0 ? pair.substring(0, equals) : pair);
+                query.putIfAbsent(name, equals >= 0 ? decode(pair.substring(equals + 1)) : "");
+            }
+            return query;
+        }
+
+        @Override
+        public String header(String name) {
+            return exchange.getRequestHeaders().getFirst(name);
+        }
+
+        @Override
+        public String contentType() {
+            return header("Content-Type");
+        }
+
+        @Override
+        public long contentLength() {
+            String length = header("Content-Length");
+            try {
+                return length != null ? Long.parseLong(length.trim()) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public InputStream body() {
+            return exchange.getRequestBody();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            return type.isInstance(exchange) ? type.cast(exchange) : null;
+        }
+    }
+
+    private static final class JdkResponse implements HttpResponse {
+
+        private final HttpExchange exchange;
+        private int status = 200;
+        private boolean committed;
+
+        JdkResponse(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void status(int status) {
+            this.status = status;
+        }
+
+        @Override
+        public int status() {
+            return status;
+        }
+
+        @Override
+        public void type(String contentType) {
+            header("Content-Type", contentType);
+        }
+
+        @Override
+        public void header(String name, String value) {
+            if (value == null) {
+                exchange.getResponseHeaders().remove(name);
+            } else {
+                exchange.getResponseHeaders().set(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            exchange.getResponseHeaders().add(name, value);
+        }
+
+        @Override
+        public OutputStream outputStream() {
+            return new CommittingOutputStream();
+        }
+
+        /**
+         * Sends the status and headers on the first write, flush or close, like a servlet container's buffer does,
+         * so headers set after {@link #outputStream()} but before any body still reach the client.
+         */
+        private final class CommittingOutputStream extends OutputStream {
+
+            private OutputStream body;
+
+            private OutputStream body() throws IOException {
+                if (body == null) {
+                    committed = true;
+                    // Zero selects chunked encoding
+                    exchange.sendResponseHeaders(status, 0);
+                    body = exchange.getResponseBody();
+                }
+                return body;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                body().write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                body().write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                body().flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                body().close();
+            }
+        }
+
+        @Override
+        public void send(byte[] body) throws IOException {
+            committed = true;
+            boolean empty = body.length == 0 || status == 204 || status == 304;
+            exchange.sendResponseHeaders(status, empty ? -1 : body.length);
+            if (!empty) {
+                exchange.getResponseBody().write(body);
+            }
+        }
+
+        /**
+         * Sends a route's return value unless the route already wrote to the response.
+         */
+        void finish(Object body) throws IOException {
+            if (committed) {
+                return;
+            }
+            if (body instanceof byte[]) {
+                send((byte[]) body);
+            } else {
+                send(body != null ? body.toString().getBytes(StandardCharsets.UTF_8) : new byte[0]);
+            }
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            return type.isInstance(exchange) ? type.cast(exchange) : null;
+        }
+    }
+}
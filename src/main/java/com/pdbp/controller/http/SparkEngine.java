@@ -0,0 +1,226 @@
+package com.pdbp.controller.http;
+
+import spark.Request;
+import spark.Response;
+import spark.RouteImpl;
+import spark.Service;
+import spark.Spark;
+import spark.embeddedserver.jetty.HttpRequestWrapper;
+import spark.route.HttpMethod;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * {@link HttpEngine} on Spark and its embedded Jetty, with one Jetty thread per request in flight.
+ *
+ * @author Saurabh Maurya
+ */
+public class SparkEngine implements HttpEngine {
+
+    private final Service service;
+
+    /**
+     * Creates an engine on Spark's static instance, so that settings made through
+     * {@link Spark}, such as {@code Spark.port(...)}, apply to it.
+     */
+    public SparkEngine() {
+        this(staticService());
+    }
+
+    /**
+     * Creates an engine on a new Spark instance.
+     *
+     * @param port the port to listen on
+     */
+    public SparkEngine(int port) {
+        this(Service.ignite().port(port));
+    }
+
+    /**
+     * Creates an engine on a configured Spark instance.
+     */
+    public SparkEngine(Service service) {
+        this.service = service;
+    }
+
+    /**
+     * Returns the instance behind Spark's static API, which Spark does not expose.
+     */
+    private static Service staticService() {
+        try {
+            Method getInstance = Spark.class.getDeclaredMethod("getInstance");
+            getInstance.setAccessible(true);
+            return (Service) getInstance.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unsupported Spark version", e);
+        }
+    }
+
+    @Override
+    public void before(Filter filter) {
+        service.before((request, response) -> filter.handle(new SparkRequest(request), new SparkResponse(response)));
+    }
+
+    @Override
+    public void afterAfter(Filter filter) {
+        service.afterAfter((request, response) ->
+                filter.handle(new SparkRequest(request), new SparkResponse(response)));
+    }
+
+    @Override
+    public void route(String method, String template, Route route) {
+        service.addRoute(HttpMethod.valueOf(method.toLowerCase(Locale.ROOT)), RouteImpl.create(template,
+                (request, response) -> route.handle(new SparkRequest(request), new SparkResponse(response))));
+    }
+
+    @Override
+    public void notFound(Route route) {
+        service.notFound((request, response) -> route.handle(new SparkRequest(request), new SparkResponse(response)));
+    }
+
+    @Override
+    public <T extends Exception> void exception(Class<T> type, ExceptionHandler<? super T> handler) {
+        service.exception(type, (exception, request, response) -> {
+            Object body = handler.handle(exception, new SparkRequest(request), new SparkResponse(response));
+            // Spark's exception bodies are strings
+            response.body(body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8)
+                    : body != null ? body.toString() : null);
+        });
+    }
+
+    @Override
+    public void start() {
+        service.init();
+    }
+
+    @Override
+    public void awaitInitialization() {
+        service.awaitInitialization();
+    }
+
+    @Override
+    public void stop() {
+        service.stop();
+        service.awaitStop();
+    }
+
+    private static final class SparkRequest implements HttpRequest {
+
+        private final Request request;
+
+        SparkRequest(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public String method() {
+            return request.requestMethod();
+        }
+
+        @Override
+        public String path() {
+            return request.pathInfo();
+        }
+
+        @Override
+        public String pathParam(String name) {
+            return request.params(name);
+        }
+
+        @Override
+        public String queryParam(String name) {
+            return request.queryParams(name);
+        }
+
+        @Override
+        public String header(String name) {
+            return request.headers(name);
+        }
+
+        @Override
+        public String contentType() {
+            return request.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return request.raw().getContentLengthLong();
+        }
+
+        /**
+         * Reads from under Spark's request wrapper, whose input stream would first copy the whole body.
+         */
+        @Override
+        public InputStream body() throws IOException {
+            return request.raw() instanceof HttpRequestWrapper
+                    ? ((HttpRequestWrapper) request.raw()).getRequest().getInputStream()
+                    : request.raw().getInputStream();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            return type.isInstance(request.raw()) ? type.cast(request.raw()) : null;
+        }
+    }
+
+    /**
+     * Writes committed bodies straight to the servlet response; Spark then skips its own body serialization.
+     */
+    private static final class SparkResponse implements HttpResponse {
+
+        private final Response response;
+
+        SparkResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public void status(int status) {
+            response.status(status);
+        }
+
+        @Override
+        public int status() {
+            return response.status();
+        }
+
+        @Override
+        public void type(String contentType) {
+            response.type(contentType);
+        }
+
+        @Override
+        public void header(String name, String value) {
+            response.raw().setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            response.raw().addHeader(name, value);
+        }
+
+        @Override
+        public OutputStream outputStream() throws IOException {
+            return response.raw().getOutputStream();
+        }
+
+        @Override
+        public void send(byte[] body) throws IOException {
+            HttpServletResponse raw = response.raw();
+            raw.setContentLength(body.length);
+            raw.getOutputStream().write(body);
+            raw.flushBuffer();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            return type.isInstance(response.raw()) ? type.cast(response.raw()) : null;
+        }
+    }
+}
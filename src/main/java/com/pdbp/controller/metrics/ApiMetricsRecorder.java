@@ -0,0 +1,349 @@
+package com.pdbp.controller.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records API request counts, error counts and latencies per route template.
+ *
+ * <p>Request paths are normalized to the route template they match
+ * ({@code /api/plugins/:name} rather than {@code /api/plugins/foo}), so the
+ * number of counters is bounded by the number of routes. Counters are
+ * {@link LongAdder}s, which stripe updates across cells instead of contending
+ * on a single value, and route matching walks the path in place, so recording
+ * a request does not allocate.
+ *
+ * <p>Routes are matched in registration order, the same way Spark matches
+ * them, so literal routes such as {@code /api/plugins/discover} must be
+ * registered before parameterized ones such as {@code /api/plugins/:name}.
+ * Paths that match no route are counted under {@value #UNMATCHED_KEY}.
+ *
+ * <p>Latency is measured between {@link #beginRequest(String, String)} and
+ * {@link #endRequest()}, which must run on the same thread. The start time is
+ * kept in a per-thread holder that is reused across requests, so timing does
+ * not allocate either.
+ *
+ * @author Saurabh Maurya
+ */
+public class ApiMetricsRecorder {
+
+    /**
+     * Key under which requests that match no registered route are counted.
+     */
+    public static final String UNMATCHED_KEY = "OTHER";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    private final RouteMetrics unmatched = new RouteMetrics(null, null);
+    private volatile RouteMetrics[] routes = new RouteMetrics[0];
+    private final ThreadLocal<ActiveRequest> activeRequest = ThreadLocal.withInitial(ActiveRequest::new);
+
+    /**
+     * Registers a route template.
+     *
+     * @param method   HTTP method, or null to match any method
+     * @param template route template, e.g. {@code /api/plugins/:name}
+     * @return the template, for inline use during route registration
+     */
+    public synchronized String registerRoute(String method, String template) {
+        RouteMetrics[] current = routes;
+        for (RouteMetrics route : current) {
+            if (route.template.equals(template) && (route.method == null ? method == null : route.method.equals(method))) {
+                return template;
+            }
+        }
+        RouteMetrics[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new RouteMetrics(method, template);
+        routes = updated;
+        return template;
+    }
+
+    /**
+     * Resolves the route a request belongs to.
+     *
+     * @param method HTTP method, or null to ignore the method
+     * @param path   request path
+     * @return the matching route, or the unmatched bucket
+     */
+    public RouteMetrics resolve(String method, String path) {
+        if (path != null) {
+            for (RouteMetrics route : routes) {
+                if (route.matches(method, path)) {
+                    return route;
+                }
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * Records a request.
+     *
+     * @param method HTTP method, or null to ignore the method
+     * @param path   request path
+     * @return the route the request was counted against
+     */
+    public RouteMetrics recordRequest(String method, String path) {
+        RouteMetrics route = resolve(method, path);
+        route.requests.increment();
+        return route;
+    }
+
+    /**
+     * Records a request and starts timing it on the current thread.
+     *
+     * @param method HTTP method, or null to ignore the method
+     * @param path   request path
+     * @return the route the request was counted against
+     */
+    public RouteMetrics beginRequest(String method, String path) {
+        RouteMetrics route = recordRequest(method, path);
+        ActiveRequest active = activeRequest.get();
+        active.route = route;
+        active.startNanos = System.nanoTime();
+        return route;
+    }
+
+    /**
+     * Records the latency of the request started on the current thread, if any.
+     */
+    public void endRequest() {
+        ActiveRequest active = activeRequest.get();
+        RouteMetrics route = active.route;
+        if (route != null) {
+            route.latency.record(System.nanoTime() - active.startNanos);
+            active.route = null;
+        }
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param method HTTP method, or null to ignore the method
+     * @param path   request path
+     * @return the route the error was counted against
+     */
+    public RouteMetrics recordError(String method, String path) {
+        RouteMetrics route = resolve(method, path);
+        route.errors.increment();
+        return route;
+    }
+
+    /**
+     * Returns the metrics of all registered routes followed by the unmatched bucket.
+     *
+     * @return list of route metrics
+     */
+    public List<RouteMetrics> getRoutes() {
+        List<RouteMetrics> all = new ArrayList<>(Arrays.asList(routes));
+        all.add(unmatched);
+        return all;
+    }
+
+    /**
+     * Builds a snapshot of all counters, keyed by {@code "METHOD template"}.
+     *
+     * <p>Routes that have not been hit yet are omitted.
+     *
+     * @return map of route key to {@code requests}/{@code errors} counts and
+     *         {@code latencyMicros} percentiles
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (RouteMetrics route : getRoutes()) {
+            long requests = route.getRequestCount();
+            long errors = route.getErrorCount();
+            if (requests == 0 && errors == 0) {
+                continue;
+            }
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("requests", requests);
+            counts.put("errors", errors);
+            counts.put("latencyMicros", latencySnapshot(route.latency));
+            snapshot.put(route.getKey(), counts);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes request and error counters and a latency summary per route.
+     *
+     * <p>Routes that have not been hit yet are omitted.
+     *
+     * @param writer the exposition writer
+     */
+    public void writeTo(OpenMetricsWriter writer) {
+        List<RouteMetrics> active = new ArrayList<>();
+        for (RouteMetrics route : getRoutes()) {
+            if (route.getRequestCount() > 0 || route.getErrorCount() > 0) {
+                active.add(route);
+            }
+        }
+
+        writer.family("pdbp_api_requests", "counter", "API requests per route");
+        for (RouteMetrics route : active) {
+            labels(writer.sample("pdbp_api_requests", "_total"), route).value(route.getRequestCount());
+        }
+        writer.family("pdbp_api_errors", "counter", "Failed API requests per route");
+        for (RouteMetrics route : active) {
+            labels(writer.sample("pdbp_api_errors", "_total"), route).value(route.getErrorCount());
+        }
+        writer.family("pdbp_api_request_duration_seconds", "summary", "API request handling latency per route");
+        for (RouteMetrics route : active) {
+            LatencyHistogram.Snapshot latency = route.latency.snapshot();
+            for (int i = 0; i < QUANTILES.length; i++) {
+                labels(writer.sample("pdbp_api_request_duration_seconds", ""), route)
+                        .label("quantile", QUANTILE_LABELS[i])
+                        .value(toSeconds(latency.valueAtPercentile(QUANTILES[i] * 100)));
+            }
+            labels(writer.sample("pdbp_api_request_duration_seconds", "_count"), route).value(latency.getCount());
+            labels(writer.sample("pdbp_api_request_duration_seconds", "_sum"), route)
+                    .value(toSeconds(latency.getSum()));
+        }
+    }
+
+    private static OpenMetricsWriter labels(OpenMetricsWriter writer, RouteMetrics route) {
+        if (route.template == null) {
+            return writer.label("route", UNMATCHED_KEY);
+        }
+        if (route.method != null) {
+            writer.label("method", route.method);
+        }
+        return writer.label("route", route.template);
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static Map<String, Object> latencySnapshot(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot latency = histogram.snapshot();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", latency.getCount());
+        values.put("p50", toMicros(latency.valueAtPercentile(50)));
+        values.put("p90", toMicros(latency.valueAtPercentile(90)));
+        values.put("p99", toMicros(latency.valueAtPercentile(99)));
+        values.put("p999", toMicros(latency.valueAtPercentile(99.9)));
+        values.put("max", toMicros(latency.getMax()));
+        return values;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Route and start time of the request being handled by a thread.
+     */
+    private static final class ActiveRequest {
+
+        private RouteMetrics route;
+        private long startNanos;
+    }
+
+    /**
+     * Counters for a single route template.
+     */
+    public static final class RouteMetrics {
+
+        private final String method;
+        private final String template;
+        private final String key;
+        private final String[] segments;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private RouteMetrics(String method, String template) {
+            this.method = method;
+            this.template = template;
+            if (template == null) {
+                this.key = UNMATCHED_KEY;
+                this.segments = new String[0];
+            } else {
+                this.key = method == null ? template : method + " " + template;
+                this.segments = splitSegments(template);
+            }
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * Returns the route template, or null for the unmatched bucket.
+         */
+        public String getTemplate() {
+            return template;
+        }
+
+        /**
+         * Returns the display key, {@code "METHOD template"} or {@value ApiMetricsRecorder#UNMATCHED_KEY}.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public long getRequestCount() {
+            return requests.sum();
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        /**
+         * Returns the latency histogram, in nanoseconds.
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Matches a path segment by segment without allocating.
+         */
+        private boolean matches(String requestMethod, String path) {
+            if (method != null && requestMethod != null && !method.equals(requestMethod)) {
+                return false;
+            }
+            int length = path.length();
+            int pos = 0;
+            for (String segment : segments) {
+                if (pos >= length || path.charAt(pos) != '/') {
+                    return false;
+                }
+                pos++;
+                int end = path.indexOf('/', pos);
+                if (end < 0) {
+                    end = length;
+                }
+                if (segment.charAt(0) == ':') {
+                    if (end == pos) {
+                        return false;
+                    }
+                } else if (end - pos != segment.length() || !path.regionMatches(pos, segment, 0, segment.length())) {
+                    return false;
+                }
+                pos = end;
+            }
+            // Tolerate a single trailing slash
+            return pos == length || (pos == length - 1 && path.charAt(pos) == '/');
+        }
+
+        private static String[] splitSegments(String template) {
+            List<String> segments = new ArrayList<>();
+            for (String segment : template.split("/")) {
+                if (!segment.isEmpty()) {
+                    segments.add(segment);
+                }
+            }
+            return segments.toArray(new String[0]);
+        }
+    }
+}
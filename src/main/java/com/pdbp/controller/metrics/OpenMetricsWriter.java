@@ -0,0 +1,219 @@
+package com.pdbp.controller.metrics;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders metrics in the OpenMetrics text exposition format.
+ *
+ * <p>Output is appended to a single buffer that is reused across scrapes
+ * via {@link #reset()}; samples are written directly with no intermediate
+ * model. A writer is not thread-safe, so callers serialize scrapes on it.
+ *
+ * <pre>
+ * writer.family("pdbp_api_requests", "counter", "API requests per route");
+ * writer.sample("pdbp_api_requests", "_total").label("route", "/api/plugins").value(42);
+ * writer.eof();
+ * </pre>
+ *
+ * @author Saurabh Maurya
+ */
+public final class OpenMetricsWriter {
+
+    /**
+     * Content type of the rendered exposition.
+     */
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private final StringBuilder buffer;
+    private final Set<String> families = new HashSet<>();
+    private boolean labelsOpen;
+
+    public OpenMetricsWriter() {
+        this.buffer = new StringBuilder(8192);
+    }
+
+    /**
+     * Clears the buffer for the next scrape, keeping its capacity.
+     */
+    public void reset() {
+        buffer.setLength(0);
+        families.clear();
+        labelsOpen = false;
+    }
+
+    /**
+     * Writes the TYPE and HELP metadata of a metric family.
+     *
+     * @param name family name
+     * @param type OpenMetrics type: counter, gauge, summary, histogram or unknown
+     * @param help help text
+     * @return this writer
+     */
+    public OpenMetricsWriter family(String name, String type, String help) {
+        families.add(name);
+        buffer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        buffer.append("# HELP ").append(name).append(' ');
+        appendEscaped(help);
+        buffer.append('\n');
+        return this;
+    }
+
+    /**
+     * Starts a sample line.
+     *
+     * @param name   family name
+     * @param suffix sample suffix such as {@code _total}, {@code _count} or {@code _sum}; may be empty
+     * @return this writer
+     */
+    public OpenMetricsWriter sample(String name, String suffix) {
+        buffer.append(name).append(suffix);
+        labelsOpen = false;
+        return this;
+    }
+
+    /**
+     * Adds a label to the current sample.
+     *
+     * @param name  label name
+     * @param value label value, escaped as needed
+     * @return this writer
+     */
+    public OpenMetricsWriter label(String name, String value) {
+        buffer.append(labelsOpen ? ',' : '{').append(name).append("=\"");
+        appendEscaped(value);
+        buffer.append('"');
+        labelsOpen = true;
+        return this;
+    }
+
+    /**
+     * Completes the current sample with an integer value.
+     *
+     * @param value sample value
+     */
+    public void value(long value) {
+        closeLabels();
+        buffer.append(value).append('\n');
+    }
+
+    /**
+     * Completes the current sample with a floating point value.
+     *
+     * @param value sample value
+     */
+    public void value(double value) {
+        closeLabels();
+        if (Double.isNaN(value)) {
+            buffer.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            buffer.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            buffer.append(value);
+        }
+        buffer.append('\n');
+    }
+
+    /**
+     * Writes every numeric leaf of a metrics map as a gauge.
+     *
+     * <p>Nested maps are flattened by joining keys with an underscore, and
+     * names are sanitized to valid metric names. Non-numeric values are skipped,
+     * and so are names of families already written, since a repeated family
+     * makes the exposition invalid.
+     *
+     * @param prefix  metric name prefix, e.g. {@code pdbp_service}
+     * @param metrics the metrics map
+     */
+    public void gauges(String prefix, Map<String, ?> metrics) {
+        if (metrics == null) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : metrics.entrySet()) {
+            String name = prefix + "_" + sanitizeName(entry.getKey());
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, ?> nested = (Map<String, ?>) value;
+                gauges(name, nested);
+            } else if (!families.contains(name)) {
+                // A name already written, e.g. by two keys that sanitize alike, would repeat its family
+                gauge(name, entry.getKey(), value);
+            }
+        }
+    }
+
+    /**
+     * Writes the mandatory end-of-exposition marker.
+     */
+    public void eof() {
+        buffer.append("# EOF\n");
+    }
+
+    /**
+     * Returns the rendered exposition.
+     */
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    /**
+     * Replaces characters that are not valid in a metric name with underscores.
+     *
+     * @param name raw name
+     * @return valid metric name
+     */
+    public static String sanitizeName(String name) {
+        StringBuilder sanitized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':'
+                    || (i > 0 && c >= '0' && c <= '9');
+            sanitized.append(valid ? c : '_');
+        }
+        return sanitized.toString();
+    }
+
+    private void gauge(String name, String help, Object value) {
+        if (value instanceof Number) {
+            family(name, "gauge", help);
+            sample(name, "");
+            if (value instanceof Double || value instanceof Float) {
+                value(((Number) value).doubleValue());
+            } else {
+                value(((Number) value).longValue());
+            }
+        } else if (value instanceof Boolean) {
+            family(name, "gauge", help);
+            sample(name, "").value((Boolean) value ? 1 : 0);
+        }
+    }
+
+    private void closeLabels() {
+        if (labelsOpen) {
+            buffer.append('}');
+            labelsOpen = false;
+        }
+        buffer.append(' ');
+    }
+
+    private void appendEscaped(String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                buffer.append("\\\\");
+            } else if (c == '\n') {
+                buffer.append("\\n");
+            } else if (c == '"') {
+                buffer.append("\\\"");
+            } else {
+                buffer.append(c);
+            }
+        }
+    }
+}
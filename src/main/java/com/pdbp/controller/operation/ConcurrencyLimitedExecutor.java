@@ -0,0 +1,93 @@
+package com.pdbp.controller.operation;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor view that runs at most {@code limit} tasks at a time on a shared delegate.
+ *
+ * <p>Excess tasks wait in an unbounded local queue and are handed to the
+ * delegate as running tasks finish. If the delegate rejects a task because it
+ * is saturated, the task runs on the submitting thread instead of being lost,
+ * which also throttles the submitter.
+ *
+ * @author Saurabh Maurya
+ */
+public class ConcurrencyLimitedExecutor implements Executor {
+
+    private final Executor delegate;
+    private final int limit;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Creates a limited view.
+     *
+     * @param delegate executor that runs the tasks
+     * @param limit    maximum number of tasks running at once; at least 1
+     */
+    public ConcurrencyLimitedExecutor(Executor delegate, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1: " + limit);
+        }
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        queue.add(command);
+        drain();
+    }
+
+    /**
+     * Hands queued tasks to the delegate while permits are available.
+     */
+    private void drain() {
+        Runnable task;
+        while ((task = acquire()) != null) {
+            Runnable next = task;
+            try {
+                delegate.execute(() -> runAndRelease(next));
+            } catch (RejectedExecutionException e) {
+                // Delegate is saturated: run here rather than dropping the task
+                try {
+                    next.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void runAndRelease(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            drain();
+        }
+    }
+
+    /**
+     * Takes a permit and a queued task, or returns null if either is unavailable.
+     */
+    private Runnable acquire() {
+        while (true) {
+            int current = active.get();
+            if (current >= limit || queue.isEmpty()) {
+                return null;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                Runnable task = queue.poll();
+                if (task != null) {
+                    return task;
+                }
+                active.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.pdbp.controller.operation;
+
+import com.pdbp.controller.PluginService;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Handle for an asynchronous plugin lifecycle operation.
+ *
+ * <p>Fields are updated by the executor thread running the operation and
+ * read by request threads polling {@code GET /api/operations/:id}.
+ *
+ * @author Saurabh Maurya
+ */
+public class LifecycleOperation {
+
+    /**
+     * Kind of lifecycle operation.
+     */
+    public enum Type {
+        INSTALL, START, STOP, UNLOAD
+    }
+
+    /**
+     * Progress of an operation.
+     */
+    public enum Status {
+        PENDING, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isDone() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final Type type;
+    private final String pluginName;
+    private final long submittedAt;
+
+    private volatile Status status = Status.PENDING;
+    private volatile long completedAt;
+    private volatile PluginService.PluginInfo result;
+    private volatile String error;
+
+    public LifecycleOperation(String id, Type type, String pluginName) {
+        this.id = id;
+        this.type = type;
+        this.pluginName = pluginName;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Returns the completion time in epoch milliseconds, or 0 while the operation is in progress.
+     */
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Returns the plugin info produced by the operation, or null (always null for unload).
+     */
+    public PluginService.PluginInfo getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the failure message, or null if the operation has not failed.
+     */
+    public String getError() {
+        return error;
+    }
+
+    void markRunning() {
+        if (status == Status.PENDING) {
+            status = Status.RUNNING;
+        }
+    }
+
+    void succeed(PluginService.PluginInfo info) {
+        result = info;
+        completedAt = System.currentTimeMillis();
+        status = Status.SUCCEEDED;
+    }
+
+    void fail(Throwable failure) {
+        error = failureMessage(failure);
+        completedAt = System.currentTimeMillis();
+        status = Status.FAILED;
+    }
+
+    /**
+     * Unwraps future wrappers and reports the same message a synchronous call would.
+     *
+     * @param failure the failure a lifecycle future completed with
+     * @return message for API clients
+     */
+    public static String failureMessage(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof PluginService.PluginServiceException && cause.getCause() != null
+                && cause.getCause().getMessage() != null) {
+            return cause.getCause().getMessage();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+    }
+}
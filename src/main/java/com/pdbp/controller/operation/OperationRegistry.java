@@ -0,0 +1,92 @@
+package com.pdbp.controller.operation;
+
+import com.pdbp.controller.PluginService;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs plugin lifecycle operations on a bounded executor and tracks them by id.
+ *
+ * <p>In-flight operations are always retrievable. Finished operations are
+ * retained until more than {@code maxRetained} have completed, after which
+ * the oldest are forgotten.
+ *
+ * @author Saurabh Maurya
+ */
+public class OperationRegistry {
+
+    private final Executor executor;
+    private final int maxRetained;
+    private final Map<String, LifecycleOperation> operations = new ConcurrentHashMap<>();
+    private final Queue<String> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger completedCount = new AtomicInteger();
+
+    /**
+     * Creates a registry.
+     *
+     * @param executor    executor the operations run on; should be bounded and reject when saturated
+     * @param maxRetained number of finished operations kept for polling
+     */
+    public OperationRegistry(Executor executor, int maxRetained) {
+        this.executor = executor;
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * Submits an operation.
+     *
+     * @param type       operation type
+     * @param pluginName target plugin
+     * @param action     starts the operation on the given executor
+     * @return the operation handle
+     * @throws RejectedExecutionException if the executor is saturated
+     */
+    public LifecycleOperation submit(LifecycleOperation.Type type, String pluginName,
+            Function<Executor, CompletableFuture<PluginService.PluginInfo>> action) {
+        LifecycleOperation operation = new LifecycleOperation(UUID.randomUUID().toString(), type, pluginName);
+        CompletableFuture<PluginService.PluginInfo> future = action.apply(command -> executor.execute(() -> {
+            operation.markRunning();
+            command.run();
+        }));
+        operations.put(operation.getId(), operation);
+        future.whenComplete((info, failure) -> {
+            if (failure != null) {
+                operation.fail(failure);
+            } else {
+                operation.succeed(info);
+            }
+            retire(operation);
+        });
+        return operation;
+    }
+
+    /**
+     * Looks up an operation.
+     *
+     * @param id operation id
+     * @return the operation, or null if unknown or no longer retained
+     */
+    public LifecycleOperation get(String id) {
+        return operations.get(id);
+    }
+
+    private void retire(LifecycleOperation operation) {
+        completed.add(operation.getId());
+        if (completedCount.incrementAndGet() > maxRetained) {
+            String oldest = completed.poll();
+            if (oldest != null) {
+                operations.remove(oldest);
+                completedCount.decrementAndGet();
+            }
+        }
+    }
+}
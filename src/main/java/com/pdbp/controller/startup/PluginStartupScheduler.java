@@ -0,0 +1,217 @@
+package com.pdbp.controller.startup;
+
+import com.pdbp.controller.PluginService;
+import com.pdbp.controller.PluginService.PluginInfo;
+import com.pdbp.controller.PluginService.PluginServiceException;
+import com.pdbp.controller.operation.LifecycleOperation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts plugins in dependency order, running independent plugins in parallel.
+ *
+ * <p>Plugins declare dependencies through {@link PluginInfo#getDependencies()}.
+ * The scheduler builds a DAG from them and starts each plugin on a
+ * {@link ForkJoinPool} as soon as all of its dependencies have started.
+ * A plugin whose dependency failed, timed out or is not installed is skipped,
+ * and plugins that are already {@code STARTED} are left alone.
+ *
+ * <p>Each start is bounded by a per-plugin timeout. A timed-out start is
+ * reported as such and its dependents are skipped, but the underlying
+ * {@link PluginService#startPlugin(String)} call is not interrupted.
+ *
+ * @author Saurabh Maurya
+ */
+public class PluginStartupScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PluginStartupScheduler.class);
+
+    private static final String STARTED_STATE = "STARTED";
+
+    private final PluginService pluginService;
+    private final int parallelism;
+    private final long timeoutMillis;
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param pluginService service used to start plugins
+     * @param parallelism   number of plugins that may start at the same time
+     * @param timeout       per-plugin start timeout
+     * @param unit          unit of {@code timeout}
+     */
+    public PluginStartupScheduler(PluginService pluginService, int parallelism, long timeout, TimeUnit unit) {
+        this.pluginService = pluginService;
+        this.parallelism = parallelism;
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * Starts the given plugins and waits until every one has started, failed or been skipped.
+     *
+     * @param plugins the plugins to start
+     * @return per-plugin results and the overall duration
+     * @throws PluginServiceException if the dependencies contain a cycle
+     */
+    public StartupReport startAll(Collection<PluginInfo> plugins) throws PluginServiceException {
+        long startNanos = System.nanoTime();
+        Map<String, PluginInfo> byName = new LinkedHashMap<>();
+        for (PluginInfo plugin : plugins) {
+            byName.put(plugin.getName(), plugin);
+        }
+        List<PluginInfo> ordered = topologicalOrder(byName);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        ScheduledExecutorService timer = newTimer();
+        try {
+            Map<String, CompletableFuture<StartupReport.PluginResult>> results = new HashMap<>();
+            for (PluginInfo plugin : ordered) {
+                results.put(plugin.getName(), schedule(plugin, byName, results, pool, timer));
+            }
+            List<StartupReport.PluginResult> pluginResults = new ArrayList<>(ordered.size());
+            for (PluginInfo plugin : ordered) {
+                pluginResults.add(results.get(plugin.getName()).join());
+            }
+            return new StartupReport(pluginResults, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } finally {
+            timer.shutdownNow();
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Chains the start of a plugin behind the starts of its dependencies.
+     */
+    private CompletableFuture<StartupReport.PluginResult> schedule(PluginInfo plugin, Map<String, PluginInfo> byName,
+            Map<String, CompletableFuture<StartupReport.PluginResult>> results, ForkJoinPool pool,
+            ScheduledExecutorService timer) {
+        String name = plugin.getName();
+        List<CompletableFuture<StartupReport.PluginResult>> dependencies = new ArrayList<>();
+        for (String dependency : plugin.getDependencies()) {
+            if (!byName.containsKey(dependency)) {
+                return CompletableFuture.completedFuture(StartupReport.PluginResult.skipped(name,
+                        "Missing dependency: " + dependency));
+            }
+            dependencies.add(results.get(dependency));
+        }
+
+        return CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0])).thenCompose(ignored -> {
+            for (CompletableFuture<StartupReport.PluginResult> dependency : dependencies) {
+                StartupReport.PluginResult result = dependency.join();
+                if (!result.isStarted()) {
+                    return CompletableFuture.completedFuture(StartupReport.PluginResult.skipped(name,
+                            "Dependency did not start: " + result.getName()));
+                }
+            }
+            if (STARTED_STATE.equals(plugin.getState())) {
+                return CompletableFuture.completedFuture(StartupReport.PluginResult.alreadyStarted(name));
+            }
+            return start(name, pool, timer);
+        });
+    }
+
+    /**
+     * Starts one plugin on the pool, bounded by the per-plugin timeout. The timeout starts when the task begins
+     * running, so time spent queued behind other plugins does not count against it.
+     */
+    private CompletableFuture<StartupReport.PluginResult> start(String name, ForkJoinPool pool,
+            ScheduledExecutorService timer) {
+        CompletableFuture<StartupReport.PluginResult> result = new CompletableFuture<>();
+        AtomicLong startNanos = new AtomicLong();
+        pool.execute(() -> {
+            startNanos.set(System.nanoTime());
+            ScheduledFuture<?> timeout = timer.schedule(() -> result.completeExceptionally(new TimeoutException()),
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                pluginService.startPlugin(name);
+                result.complete(StartupReport.PluginResult.started(name, elapsedMillis(startNanos.get())));
+            } catch (PluginServiceException | RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                timeout.cancel(false);
+            }
+        });
+        return result.handle((started, failure) -> {
+            if (failure == null) {
+                return started;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof TimeoutException) {
+                logger.warn("Plugin {} did not start within {} ms", name, timeoutMillis);
+                return StartupReport.PluginResult.timedOut(name, elapsedMillis(startNanos.get()));
+            }
+            logger.warn("Plugin {} failed to start", name, cause);
+            return StartupReport.PluginResult.failed(name, elapsedMillis(startNanos.get()),
+                    LifecycleOperation.failureMessage(cause));
+        });
+    }
+
+    /**
+     * Orders plugins so that every plugin comes after its installed dependencies.
+     *
+     * @throws PluginServiceException if the dependencies contain a cycle
+     */
+    private static List<PluginInfo> topologicalOrder(Map<String, PluginInfo> byName) throws PluginServiceException {
+        List<PluginInfo> ordered = new ArrayList<>(byName.size());
+        Map<String, Boolean> visiting = new HashMap<>(); // true while on the DFS stack, false once done
+        for (String name : byName.keySet()) {
+            visit(name, byName, visiting, ordered, new ArrayList<>());
+        }
+        return ordered;
+    }
+
+    private static void visit(String name, Map<String, PluginInfo> byName, Map<String, Boolean> visiting,
+            List<PluginInfo> ordered, List<String> path) throws PluginServiceException {
+        Boolean state = visiting.get(name);
+        if (Boolean.FALSE.equals(state)) {
+            return;
+        }
+        path.add(name);
+        if (Boolean.TRUE.equals(state)) {
+            throw new PluginServiceException("Plugin dependency cycle: "
+                    + String.join(" -> ", path.subList(path.indexOf(name), path.size())));
+        }
+        visiting.put(name, Boolean.TRUE);
+        PluginInfo plugin = byName.get(name);
+        for (String dependency : plugin.getDependencies()) {
+            if (byName.containsKey(dependency)) {
+                visit(dependency, byName, visiting, ordered, path);
+            }
+        }
+        visiting.put(name, Boolean.FALSE);
+        path.remove(path.size() - 1);
+        ordered.add(plugin);
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "pdbp-startup-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
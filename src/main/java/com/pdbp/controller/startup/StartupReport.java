@@ -0,0 +1,136 @@
+package com.pdbp.controller.startup;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link PluginStartupScheduler} run.
+ *
+ * @author Saurabh Maurya
+ */
+public class StartupReport {
+
+    /**
+     * Outcome of starting a single plugin.
+     */
+    public enum Status {
+        STARTED, ALREADY_STARTED, FAILED, TIMED_OUT, SKIPPED
+    }
+
+    private final List<PluginResult> results;
+    private final long durationMillis;
+
+    public StartupReport(List<PluginResult> results, long durationMillis) {
+        this.results = Collections.unmodifiableList(results);
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Returns per-plugin results in start order.
+     */
+    public List<PluginResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the wall-clock time of the whole run.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Summarizes the report for the metrics endpoint.
+     *
+     * @return map with the run duration, counts per status and per-plugin results
+     */
+    public Map<String, Object> toMap() {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        Map<String, Object> plugins = new LinkedHashMap<>();
+        for (PluginResult result : results) {
+            counts.merge(result.getStatus(), 1, Integer::sum);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("status", result.getStatus().name());
+            entry.put("durationMillis", result.getDurationMillis());
+            if (result.getError() != null) {
+                entry.put("error", result.getError());
+            }
+            plugins.put(result.getName(), entry);
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("durationMillis", durationMillis);
+        for (Status status : Status.values()) {
+            map.put(status.name().toLowerCase(Locale.ROOT), counts.getOrDefault(status, 0));
+        }
+        map.put("plugins", plugins);
+        return map;
+    }
+
+    /**
+     * Outcome of starting a single plugin.
+     */
+    public static final class PluginResult {
+
+        private final String name;
+        private final Status status;
+        private final long durationMillis;
+        private final String error;
+
+        private PluginResult(String name, Status status, long durationMillis, String error) {
+            this.name = name;
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.error = error;
+        }
+
+        static PluginResult started(String name, long durationMillis) {
+            return new PluginResult(name, Status.STARTED, durationMillis, null);
+        }
+
+        static PluginResult alreadyStarted(String name) {
+            return new PluginResult(name, Status.ALREADY_STARTED, 0, null);
+        }
+
+        static PluginResult failed(String name, long durationMillis, String error) {
+            return new PluginResult(name, Status.FAILED, durationMillis, error);
+        }
+
+        static PluginResult timedOut(String name, long durationMillis) {
+            return new PluginResult(name, Status.TIMED_OUT, durationMillis, "Start timed out");
+        }
+
+        static PluginResult skipped(String name, String reason) {
+            return new PluginResult(name, Status.SKIPPED, 0, reason);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * Returns the failure or skip reason, or null.
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Returns true if the plugin is running after the run.
+         */
+        public boolean isStarted() {
+            return status == Status.STARTED || status == Status.ALREADY_STARTED;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.pdbp.controller.startup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boot-to-ready timing of a controller.
+ *
+ * <p>The clock starts when the timings are created, normally together with
+ * the controller, and stops when the installed plugins have been started.
+ * Along the way it records how long route registration and mapper warm-up
+ * took, and when the first response was sent.
+ *
+ * @author Saurabh Maurya
+ */
+public class StartupTimings {
+
+    private final long bootNanos;
+    private volatile long readyNanos = -1;
+    private volatile StartupReport pluginStartup;
+    private volatile long routeRegistrationNanos = -1;
+    private volatile long mapperWarmUpNanos = -1;
+    private volatile long firstResponseNanos = -1;
+
+    public StartupTimings() {
+        this.bootNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the plugin startup run and marks the controller ready.
+     *
+     * <p>Only the first run counts towards boot-to-ready; later runs replace the report.
+     *
+     * @param report the plugin startup report
+     */
+    public synchronized void pluginStartupCompleted(StartupReport report) {
+        pluginStartup = report;
+        if (readyNanos < 0) {
+            readyNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records how long registering the routes took.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void routesRegistered(long nanos) {
+        routeRegistrationNanos = nanos;
+    }
+
+    /**
+     * Records how long building and exercising the serializers took.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void mappersWarmedUp(long nanos) {
+        mapperWarmUpNanos = nanos;
+    }
+
+    /**
+     * Marks a response as sent; only the first one is recorded. Cheap enough to call on every request.
+     */
+    public void responseSent() {
+        if (firstResponseNanos < 0) {
+            firstResponseSent();
+        }
+    }
+
+    private synchronized void firstResponseSent() {
+        if (firstResponseNanos < 0) {
+            firstResponseNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the boot-to-ready time, or -1 if the controller is not ready yet.
+     */
+    public long getBootToReadyMillis() {
+        long ready = readyNanos;
+        return ready < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(ready - bootNanos);
+    }
+
+    /**
+     * Summarizes the timings for the metrics endpoint.
+     *
+     * <p>Phases that have not happened yet are reported as -1.
+     *
+     * @return map with {@code ready}, {@code bootToReadyMillis}, the phase timings and the plugin startup report
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long bootToReady = getBootToReadyMillis();
+        map.put("ready", bootToReady >= 0);
+        map.put("bootToReadyMillis", bootToReady);
+        map.put("routeRegistrationMillis", toMillis(routeRegistrationNanos));
+        map.put("mapperWarmUpMillis", toMillis(mapperWarmUpNanos));
+        long firstResponse = firstResponseNanos;
+        map.put("bootToFirstResponseMillis", firstResponse < 0 ? -1 : toMillis(firstResponse - bootNanos));
+        StartupReport report = pluginStartup;
+        if (report != null) {
+            map.put("pluginStartup", report.toMap());
+        }
+        return map;
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -1,12 +1,26 @@
 package com.pdbp.controller.util;
 
+import java.io.IOException;
+
 /**
  * Utility class for JSON operations.
  *
+ * <p>Escaping is done in a single pass: runs of safe characters are copied
+ * as a whole, and a string that needs no escaping is returned as is.
+ *
  * @author Saurabh Maurya
  */
 public final class JsonUtils {
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Largest builder kept per thread for reuse; bigger ones are dropped after use.
+     */
+    private static final int MAX_REUSED_CAPACITY = 4096;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
     private JsonUtils() {
         // Utility class
     }
@@ -14,18 +28,53 @@ public final class JsonUtils {
     /**
      * Escapes JSON string to prevent injection.
      *
+     * <p>Escapes quotes, backslashes, all control characters and the
+     * U+2028/U+2029 line separators.
+     *
      * @param str the string to escape
-     * @return escaped string
+     * @return escaped string, or {@code str} itself if nothing needs escaping
      */
     public static String escapeJson(String str) {
         if (str == null) {
             return "";
         }
-        return str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        int first = firstEscapeIndex(str);
+        if (first < 0) {
+            return str;
+        }
+        StringBuilder escaped = new StringBuilder(str.length() + 16);
+        escaped.append(str, 0, first);
+        appendEscaped(str, first, escaped);
+        return escaped.toString();
+    }
+
+    /**
+     * Appends the escaped form of a string to a builder.
+     *
+     * @param str the string to escape; null appends nothing
+     * @param out the builder to append to
+     * @return {@code out}
+     */
+    public static StringBuilder escapeJson(String str, StringBuilder out) {
+        if (str != null) {
+            appendEscaped(str, 0, out);
+        }
+        return out;
+    }
+
+    /**
+     * Writes the escaped form of a string to an output buffer.
+     *
+     * @param str the string to escape; null writes nothing
+     * @param out the buffer or writer to write to
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public static Appendable escapeJson(String str, Appendable out) throws IOException {
+        if (str != null) {
+            appendEscaped(str, 0, out);
+        }
+        return out;
     }
 
     /**
@@ -35,7 +84,19 @@ public final class JsonUtils {
      * @return JSON error response string
      */
     public static String errorResponse(String message) {
-        return "{\"error\":\"" + escapeJson(message) + "\"}";
+        return singleField("{\"error\":\"", message);
+    }
+
+    /**
+     * Writes a JSON error response to an output buffer.
+     *
+     * @param message error message
+     * @param out     the buffer or writer to write to
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public static Appendable errorResponse(String message, Appendable out) throws IOException {
+        return escapeJson(message, out.append("{\"error\":\"")).append("\"}");
     }
 
     /**
@@ -45,7 +106,104 @@ public final class JsonUtils {
      * @return JSON message response string
      */
     public static String messageResponse(String message) {
-        return "{\"message\":\"" + escapeJson(message) + "\"}";
+        return singleField("{\"message\":\"", message);
     }
-}
 
+    /**
+     * Writes a JSON success message response to an output buffer.
+     *
+     * @param message success message
+     * @param out     the buffer or writer to write to
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public static Appendable messageResponse(String message, Appendable out) throws IOException {
+        return escapeJson(message, out.append("{\"message\":\"")).append("\"}");
+    }
+
+    /**
+     * Builds a single-field object in the calling thread's reusable builder.
+     */
+    private static String singleField(String prefix, String value) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        escapeJson(value, buffer.append(prefix)).append("\"}");
+        String json = buffer.toString();
+        if (buffer.capacity() > MAX_REUSED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return json;
+    }
+
+    private static int firstEscapeIndex(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (needsEscape(str.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean needsEscape(char c) {
+        return c < 0x20 || c == '"' || c == '\\' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Copies {@code str} from {@code start} to {@code out}; a StringBuilder never throws.
+     */
+    private static void appendEscaped(String str, int start, StringBuilder out) {
+        try {
+            appendEscaped(str, start, (Appendable) out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copies {@code str} from {@code start} to {@code out}, escaping as needed.
+     */
+    private static void appendEscaped(String str, int start, Appendable out) throws IOException {
+        int run = start;
+        for (int i = start; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (needsEscape(c)) {
+                out.append(str, run, i);
+                appendEscape(c, out);
+                run = i + 1;
+            }
+        }
+        out.append(str, run, str.length());
+    }
+
+    private static void appendEscape(char c, Appendable out) throws IOException {
+        switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            case '\b':
+                out.append("\\b");
+                break;
+            case '\f':
+                out.append("\\f");
+                break;
+            default:
+                out.append("\\u")
+                        .append(HEX_DIGITS[(c >> 12) & 0xF])
+                        .append(HEX_DIGITS[(c >> 8) & 0xF])
+                        .append(HEX_DIGITS[(c >> 4) & 0xF])
+                        .append(HEX_DIGITS[c & 0xF]);
+        }
+    }
+}
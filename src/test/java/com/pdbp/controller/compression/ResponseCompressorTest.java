@@ -0,0 +1,118 @@
+package com.pdbp.controller.compression;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ResponseCompressor} framing, deflater pooling and the size threshold.
+ *
+ * @author Saurabh Maurya
+ */
+public class ResponseCompressorTest {
+
+    private static final int MIN_SIZE = 256;
+
+    @Test
+    public void gzipBodyRoundTrips() throws IOException {
+        ResponseCompressor compressor = new ResponseCompressor(MIN_SIZE, 6, 4);
+        byte[] body = body(10000);
+        assertArrayEquals(body, gunzip(compressor.compress(body, ContentEncoding.GZIP)));
+    }
+
+    @Test
+    public void deflateBodyRoundTrips() throws IOException {
+        ResponseCompressor compressor = new ResponseCompressor(MIN_SIZE, 6, 4);
+        byte[] body = body(10000);
+        assertArrayEquals(body, inflate(compressor.compress(body, ContentEncoding.DEFLATE)));
+    }
+
+    @Test
+    public void streamedBodyRoundTrips() throws IOException {
+        ResponseCompressor compressor = new ResponseCompressor(MIN_SIZE, 6, 4);
+        byte[] body = body(50000);
+        for (ContentEncoding encoding : new ContentEncoding[] {ContentEncoding.GZIP, ContentEncoding.DEFLATE}) {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            try (OutputStream out = compressor.compressingStream(sink, encoding)) {
+                // Uneven chunks, so the gzip CRC and length cover partial writes
+                for (int offset = 0; offset < body.length; offset += 777) {
+                    out.write(body, offset, Math.min(777, body.length - offset));
+                }
+            }
+            byte[] encoded = sink.toByteArray();
+            assertArrayEquals(body, encoding == ContentEncoding.GZIP ? gunzip(encoded) : inflate(encoded));
+        }
+    }
+
+    @Test
+    public void emptyStreamIsValidGzip() throws IOException {
+        ResponseCompressor compressor = new ResponseCompressor(MIN_SIZE, 6, 4);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        compressor.compressingStream(sink, ContentEncoding.GZIP).close();
+        assertArrayEquals(new byte[0], gunzip(sink.toByteArray()));
+    }
+
+    @Test
+    public void pooledDeflaterIsResetBeforeReuse() throws IOException {
+        // One pooled deflater per coding, so every call after the first reuses it
+        ResponseCompressor compressor = new ResponseCompressor(MIN_SIZE, 6, 1);
+        for (int i = 1; i <= 5; i++) {
+            byte[] body = body(1000 * i);
+            assertArrayEquals(body, gunzip(compressor.compress(body, ContentEncoding.GZIP)));
+            assertArrayEquals(body, inflate(compressor.compress(body, ContentEncoding.DEFLATE)));
+
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            try (OutputStream out = compressor.compressingStream(sink, ContentEncoding.GZIP)) {
+                out.write(body);
+            }
+            assertArrayEquals(body, gunzip(sink.toByteArray()));
+        }
+    }
+
+    @Test
+    public void smallBodiesAndIdentityAreNotCompressed() {
+        ResponseCompressor compressor = new ResponseCompressor(MIN_SIZE, 6, 4);
+        assertFalse(compressor.shouldCompress(ContentEncoding.GZIP, MIN_SIZE - 1));
+        assertTrue(compressor.shouldCompress(ContentEncoding.GZIP, MIN_SIZE));
+        assertTrue(compressor.shouldCompress(ContentEncoding.DEFLATE, MIN_SIZE));
+        assertFalse(compressor.shouldCompress(ContentEncoding.IDENTITY, MIN_SIZE * 100));
+    }
+
+    private static byte[] body(int length) {
+        StringBuilder json = new StringBuilder(length + 64);
+        for (int i = 0; json.length() < length; i++) {
+            json.append("{\"name\":\"plugin").append(i).append("\",\"state\":\"STARTED\"},");
+        }
+        return json.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] encoded) throws IOException {
+        return readAll(new GZIPInputStream(new ByteArrayInputStream(encoded)));
+    }
+
+    private static byte[] inflate(byte[] encoded) throws IOException {
+        return readAll(new InflaterInputStream(new ByteArrayInputStream(encoded)));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = input.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
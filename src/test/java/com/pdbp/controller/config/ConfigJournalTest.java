@@ -0,0 +1,186 @@
+package com.pdbp.controller.config;
+
+import com.pdbp.controller.PluginService.ConfigDelta;
+import com.pdbp.controller.PluginService.ConfigSnapshot;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ConfigJournal} recovery, compaction and mapping growth.
+ *
+ * @author Saurabh Maurya
+ */
+public class ConfigJournalTest {
+
+    private static final int FRAME_SIZE = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysSnapshotsDeltasAndRemovals() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("config.journal");
+        try (ConfigJournal journal = open(file)) {
+            journal.appendSnapshot("a", new ConfigSnapshot(config("k1", "v1", "k2", "v2"), 1));
+            journal.appendSnapshot("b", new ConfigSnapshot(config("k", "v"), 2));
+            journal.appendDelta("a", 3, new ConfigDelta(config("k1", "changed"), Collections.singleton("k2")));
+            journal.appendRemove("b");
+        }
+
+        try (ConfigJournal journal = ConfigJournal.open(file)) {
+            Map<String, ConfigSnapshot> replayed = journal.replay();
+            assertEquals(Collections.singleton("a"), replayed.keySet());
+            assertEquals(config("k1", "changed"), replayed.get("a").getConfig());
+            assertEquals(3, replayed.get("a").getVersion());
+        }
+    }
+
+    @Test
+    public void replayStopsAtCorruptedRecordAndReusesItsSpace() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("config.journal");
+        long corruptAt;
+        try (ConfigJournal journal = open(file)) {
+            journal.appendSnapshot("a", new ConfigSnapshot(config("k", "1"), 1));
+            journal.appendSnapshot("b", new ConfigSnapshot(config("k", "2"), 2));
+            corruptAt = journal.size();
+            journal.appendSnapshot("c", new ConfigSnapshot(config("k", "3"), 3));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long payloadByte = corruptAt + FRAME_SIZE + 2;
+            raf.seek(payloadByte);
+            int value = raf.read();
+            raf.seek(payloadByte);
+            raf.write(value ^ 0xff);
+        }
+
+        try (ConfigJournal journal = ConfigJournal.open(file)) {
+            Map<String, ConfigSnapshot> replayed = journal.replay();
+            assertEquals(2, replayed.size());
+            assertFalse(replayed.containsKey("c"));
+            assertEquals(corruptAt, journal.size());
+            journal.appendSnapshot("d", new ConfigSnapshot(config("k", "4"), 4));
+        }
+
+        try (ConfigJournal journal = ConfigJournal.open(file)) {
+            Map<String, ConfigSnapshot> replayed = journal.replay();
+            assertEquals(3, replayed.size());
+            assertEquals(config("k", "4"), replayed.get("d").getConfig());
+        }
+    }
+
+    @Test
+    public void replayDropsTruncatedRecord() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("config.journal");
+        long tornAt;
+        try (ConfigJournal journal = open(file)) {
+            journal.appendSnapshot("a", new ConfigSnapshot(config("k", "1"), 1));
+            tornAt = journal.size();
+            journal.appendDelta("a", 2, new ConfigDelta(config("k", "2", "other", "value"),
+                    Collections.<String>emptySet()));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(tornAt + FRAME_SIZE + 4);
+        }
+
+        try (ConfigJournal journal = ConfigJournal.open(file)) {
+            Map<String, ConfigSnapshot> replayed = journal.replay();
+            assertEquals(config("k", "1"), replayed.get("a").getConfig());
+            assertEquals(1, replayed.get("a").getVersion());
+            assertEquals(tornAt, journal.size());
+        }
+    }
+
+    @Test
+    public void compactionKeepsLatestStateAcrossReopen() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("config.journal");
+        Map<String, ConfigSnapshot> expected = new HashMap<>();
+        long version = 0;
+        try (ConfigJournal journal = open(file)) {
+            for (String plugin : new String[] {"a", "b", "c"}) {
+                ConfigSnapshot snapshot = new ConfigSnapshot(config("k", "0"), ++version);
+                journal.appendSnapshot(plugin, snapshot);
+                expected.put(plugin, snapshot);
+            }
+            for (int i = 1; i <= 500; i++) {
+                String plugin = i % 2 == 0 ? "a" : "b";
+                journal.appendDelta(plugin, ++version, new ConfigDelta(config("k", String.valueOf(i)),
+                        Collections.<String>emptySet()));
+                expected.put(plugin, new ConfigSnapshot(config("k", String.valueOf(i)), version));
+            }
+            journal.appendRemove("c");
+            expected.remove("c");
+
+            long before = journal.size();
+            journal.compact(expected);
+            assertTrue(journal.size() < before);
+            assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".compact")));
+
+            journal.appendDelta("a", ++version, new ConfigDelta(config("after", "compaction"),
+                    Collections.<String>emptySet()));
+            expected.put("a", new ConfigSnapshot(config("k", "500", "after", "compaction"), version));
+        }
+
+        try (ConfigJournal journal = ConfigJournal.open(file)) {
+            assertSameConfigs(expected, journal.replay());
+        }
+    }
+
+    @Test
+    public void growsPastInitialMapping() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("config.journal");
+        char[] filler = new char[64 * 1024];
+        Arrays.fill(filler, 'x');
+        Map<String, ConfigSnapshot> expected = new HashMap<>();
+        try (ConfigJournal journal = open(file)) {
+            for (int i = 0; i < 40; i++) {
+                ConfigSnapshot snapshot = new ConfigSnapshot(config("value", new String(filler) + i), i + 1);
+                journal.appendSnapshot("plugin" + i, snapshot);
+                expected.put("plugin" + i, snapshot);
+            }
+            assertTrue(journal.size() > 2L << 20);
+        }
+
+        try (ConfigJournal journal = ConfigJournal.open(file)) {
+            assertSameConfigs(expected, journal.replay());
+        }
+    }
+
+    private static ConfigJournal open(Path file) throws IOException {
+        ConfigJournal journal = ConfigJournal.open(file);
+        assertTrue(journal.replay().isEmpty());
+        return journal;
+    }
+
+    private static Map<String, String> config(String... keysAndValues) {
+        Map<String, String> config = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            config.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return config;
+    }
+
+    private static void assertSameConfigs(Map<String, ConfigSnapshot> expected, Map<String, ConfigSnapshot> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, ConfigSnapshot> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().getConfig(), actual.get(entry.getKey()).getConfig());
+            assertEquals(entry.getValue().getVersion(), actual.get(entry.getKey()).getVersion());
+        }
+    }
+}